@@ -0,0 +1,186 @@
+package com.hms.benchmark;
+
+import com.hms.Application;
+import com.hms.model.AppointmentStatus;
+import com.hms.model.BillStatus;
+import com.hms.service.AvailabilityIndex;
+import com.hms.service.BillingAggregates;
+import com.hms.service.LookupIndex;
+import com.hms.service.PatientSearchIndex;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+// Boots the application against a private in-memory H2 and seeds it with synthetic rows
+// through plain JDBC batches, so setup stays fast even at 1M rows
+// JMH benchmarks run it without a web server; the load test starts one on a random port
+// rows = appointments and bills; there is one patient per 10 and one doctor per 1000 of them
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    // Seeded ids start here so they never meet the sample data from DataInitializer
+    public static final long FIRST_ID = 10_000_000L;
+
+    private static final int BATCH = 10_000;
+
+    public final int rows;
+    public final int doctors;
+    public final int patients;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkDatabase(int rows, boolean web, String... profiles) {
+        this.rows = rows;
+        this.doctors = Math.max(10, rows / 1000);
+        this.patients = Math.max(100, rows / 10);
+
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setWebApplicationType(web ? WebApplicationType.SERVLET : WebApplicationType.NONE);
+        // Passed as command-line arguments: application.properties sets most of these too,
+        // and it would win over SpringApplication default properties
+        List<String> args = new ArrayList<>();
+        args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--spring.main.banner-mode=off");
+        args.add("--logging.level.root=WARN");
+        args.add("--logging.level.com.hms=WARN");
+        args.add("--logging.level.org.springframework.web=WARN");
+        // Keep the overdue sweep from firing in the middle of a measurement
+        args.add("--hms.billing.overdue-sweep.initial-delay-ms=86400000");
+        args.add("--server.port=0");
+        // A throwaway signing key per run, and the dev profile for the demo login accounts
+        args.add("--hms.security.jwt.secret=" + randomKey());
+        String[] withDev = Arrays.copyOf(profiles, profiles.length + 1);
+        withDev[profiles.length] = "dev";
+        application.setAdditionalProfiles(withDev);
+        this.context = application.run(args.toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class));
+        // The in-memory indexes were built at startup, before the seed rows existed
+        context.getBean(AvailabilityIndex.class).rebuild();
+        context.getBean(PatientSearchIndex.class).rebuild();
+        context.getBean(LookupIndex.class).rebuild();
+        context.getBean(BillingAggregates.class).rebuild();
+    }
+
+    public static BenchmarkDatabase start(int rows) {
+        return new BenchmarkDatabase(rows, false);
+    }
+
+    // Same database, plus the embedded web server on a random port, with extra
+    // Spring profiles such as virtual-threads switched on
+    public static BenchmarkDatabase startWithServer(int rows, String... profiles) {
+        return new BenchmarkDatabase(rows, true, profiles);
+    }
+
+    public static String randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+
+    public int port() {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long doctorId(int i) {
+        return FIRST_ID + Math.floorMod(i, doctors);
+    }
+
+    public long patientId(int i) {
+        return FIRST_ID + Math.floorMod(i, patients);
+    }
+
+    public long appointmentId(int i) {
+        return FIRST_ID + Math.floorMod(i, rows);
+    }
+
+    // Start time of the seeded appointment i - each doctor gets back-to-back 30 minute slots
+    public LocalDateTime appointmentTime(int i) {
+        return LocalDate.now().atTime(8, 0).plusMinutes(30L * (i / doctors));
+    }
+
+    // Undoes the index part of V3__typed_status_and_query_indexes.sql, leaving V1's primary
+    // and foreign keys
+    public void dropQueryIndexes() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        for (String index : List.of("idx_appointments_doctor_time", "idx_appointments_patient_time",
+                "idx_appointments_time", "idx_bills_patient_bill_date", "idx_bills_status_due_date")) {
+            jdbc.execute("drop index if exists " + index);
+        }
+    }
+
+    // Undoes the status part of V3: the columns go back to V1's VARCHAR(255) holding the
+    // enum names, and the (status, due_date) index is rebuilt over the string column
+    // Only plain SQL can read the tables afterwards - the entities map status by ordinal
+    public void restoreVarcharStatus() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("drop index if exists idx_bills_status_due_date");
+        toVarchar(jdbc, "appointments", AppointmentStatus.values());
+        toVarchar(jdbc, "bills", BillStatus.values());
+        jdbc.execute("create index idx_bills_status_due_date on bills (status, due_date)");
+    }
+
+    private static void toVarchar(JdbcTemplate jdbc, String table, Enum<?>[] values) {
+        StringBuilder names = new StringBuilder("case status");
+        for (Enum<?> value : values) {
+            names.append(" when ").append(value.ordinal()).append(" then '").append(value.name()).append('\'');
+        }
+        jdbc.execute("alter table " + table + " add column status_name varchar(255)");
+        jdbc.execute("update " + table + " set status_name = " + names + " end");
+        jdbc.execute("alter table " + table + " drop column status");
+        jdbc.execute("alter table " + table + " alter column status_name rename to status");
+        jdbc.execute("alter table " + table + " alter column status set not null");
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < doctors; i++) {
+            batch.add(new Object[] {FIRST_ID + i, "Dr. Bench " + i, "Specialty " + (i % 20), "BENCH" + i, i % 40, 0L});
+            flushIfFull(jdbc, "insert into doctors (id, name, specialty, license_number, years_of_experience, version) values (?, ?, ?, ?, ?, ?)", batch, i == doctors - 1);
+        }
+        for (int i = 0; i < patients; i++) {
+            batch.add(new Object[] {FIRST_ID + i, "Patient " + i, "patient" + i + "@bench.test", "555-" + i,
+                    LocalDate.of(1950 + i % 60, 1 + i % 12, 1 + i % 28),
+                    "Seeded history " + i + ": hypertension, allergies, follow-up required", 0L});
+            flushIfFull(jdbc, "insert into patients (id, name, email, phone, date_of_birth, medical_history, version) values (?, ?, ?, ?, ?, ?, ?)", batch, i == patients - 1);
+        }
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] {FIRST_ID + i, patientId(i), doctorId(i), Timestamp.valueOf(appointmentTime(i)),
+                    i % 10 == 0 ? 2 : 0, "Reason " + i, "Notes for appointment " + i, 0L});
+            flushIfFull(jdbc, "insert into appointments (id, patient_id, doctor_id, appointment_date_time, status, reason_for_visit, notes, version) values (?, ?, ?, ?, ?, ?, ?, ?)", batch, i == rows - 1);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[] {FIRST_ID + i, patientId(i), BigDecimal.valueOf(5_000 + i % 100_000, 2), i % 4,
+                    Timestamp.valueOf(now.minusDays(i % 90)), Timestamp.valueOf(now.plusDays(15 - i % 90)), "Bill " + i, 0L});
+            flushIfFull(jdbc, "insert into bills (id, patient_id, amount, status, bill_date, due_date, description, version) values (?, ?, ?, ?, ?, ?, ?, ?)", batch, i == rows - 1);
+        }
+    }
+
+    private static void flushIfFull(JdbcTemplate jdbc, String sql, List<Object[]> batch, boolean last) {
+        if (batch.size() == BATCH || (last && !batch.isEmpty())) {
+            jdbc.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+}
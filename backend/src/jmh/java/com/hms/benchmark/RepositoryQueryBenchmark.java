@@ -0,0 +1,122 @@
+package com.hms.benchmark;
+
+import com.hms.model.BillStatus;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.BillRepository;
+import com.hms.repository.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Repository queries on the hot paths, against embedded H2 seeded at 10k / 100k / 1M rows
+// Each invocation moves on to another doctor/patient/cursor so H2 can't serve one cached row
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+
+    private static final Duration SLOT = Duration.ofMinutes(30);
+    // hms.billing.overdue-sweep.chunk-size
+    private static final int SWEEP_CHUNK = 500;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    // false drops the indexes the V3 migration added, leaving V1's (foreign keys only) -
+    // the same queries against the schema as it was before
+    @Param({"true", "false"})
+    public boolean queryIndexes;
+
+    private BenchmarkDatabase database;
+    private AppointmentRepository appointmentRepository;
+    private BillRepository billRepository;
+    private PatientRepository patientRepository;
+    private TransactionTemplate transactionTemplate;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(rows);
+        if (!queryIndexes) {
+            database.dropQueryIndexes();
+        }
+        appointmentRepository = database.bean(AppointmentRepository.class);
+        billRepository = database.bean(BillRepository.class);
+        patientRepository = database.bean(PatientRepository.class);
+        transactionTemplate = new TransactionTemplate(database.bean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Object appointmentKeysetPage() {
+        long cursor = database.appointmentId(next++ * 7919) - 1;
+        return appointmentRepository.findSummariesAfter(cursor, PageRequest.ofSize(20));
+    }
+
+    @Benchmark
+    public Object patientKeysetPage() {
+        long cursor = database.patientId(next++ * 7919) - 1;
+        return patientRepository.findSummariesAfter(cursor, PageRequest.ofSize(20));
+    }
+
+    @Benchmark
+    public Object appointmentsByDoctor() {
+        return appointmentRepository.findByDoctorId(database.doctorId(next++));
+    }
+
+    @Benchmark
+    public Object appointmentsByPatient() {
+        return appointmentRepository.findByPatientId(database.patientId(next++));
+    }
+
+    @Benchmark
+    public boolean doubleBookingCheck() {
+        int i = next++ * 7919;
+        LocalDateTime start = database.appointmentTime(Math.floorMod(i, rows));
+        return appointmentRepository.existsOverlapping(database.doctorId(i), start.minus(SLOT), start.plus(SLOT));
+    }
+
+    @Benchmark
+    public Object billsByPatient() {
+        return billRepository.findByPatientId(database.patientId(next++));
+    }
+
+    @Benchmark
+    public Object billsByStatus() {
+        return billRepository.findByStatus(BillStatus.values()[next++ % BillStatus.values().length]);
+    }
+
+    // One overdue-sweep chunk: row-locks up to 500 due PENDING bills, then rolls back so
+    // every invocation finds the same bills due
+    @Benchmark
+    public Object dueBillsChunk() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return billRepository.lockDueBills(LocalDateTime.now(), PageRequest.ofSize(SWEEP_CHUNK)).size();
+        });
+    }
+}
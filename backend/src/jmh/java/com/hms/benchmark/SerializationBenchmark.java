@@ -0,0 +1,92 @@
+package com.hms.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.model.AppointmentDTO;
+import com.hms.model.AppointmentStatus;
+import com.hms.model.AppointmentSummary;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of appointment lists - the DTO the single-appointment endpoints
+// return against the summary record the list endpoints return
+// Pure in-memory, so no database is started
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<AppointmentDTO> dtos;
+    private List<AppointmentSummary> summaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (java.time support, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        dtos = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        LocalDateTime start = LocalDate.now().atTime(8, 0);
+        for (int i = 0; i < size; i++) {
+            PatientSummary patient = new PatientSummary((long) i, "Patient " + i, "patient" + i + "@bench.test",
+                    "555-" + i, LocalDate.of(1980, 1, 1).plusDays(i));
+
+            DoctorDTO doctor = new DoctorDTO();
+            doctor.setId((long) (i % 10));
+            doctor.setName("Dr. Bench " + (i % 10));
+            doctor.setSpecialty("Cardiology");
+            doctor.setLicenseNumber("BENCH" + (i % 10));
+            doctor.setYearsOfExperience(12);
+
+            AppointmentDTO dto = new AppointmentDTO();
+            dto.setId((long) i);
+            dto.setPatient(patient);
+            dto.setDoctor(doctor);
+            dto.setAppointmentDateTime(start.plusMinutes(30L * i));
+            dto.setStatus(AppointmentStatus.SCHEDULED.name());
+            dto.setReasonForVisit("Regular checkup");
+            dto.setNotes("Patient needs ECG and blood pressure monitoring");
+            dtos.add(dto);
+
+            summaries.add(new AppointmentSummary((long) i, dto.getAppointmentDateTime(), AppointmentStatus.SCHEDULED,
+                    dto.getReasonForVisit(), dto.getNotes(),
+                    patient.id(), patient.name(), patient.email(), patient.phone(), patient.dateOfBirth(),
+                    doctor.getId(), doctor.getName(), doctor.getSpecialty(), doctor.getLicenseNumber(), doctor.getYearsOfExperience()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeAppointmentDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointmentSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
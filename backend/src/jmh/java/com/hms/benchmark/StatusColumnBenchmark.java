@@ -0,0 +1,83 @@
+package com.hms.benchmark;
+
+import com.hms.model.BillStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// The status-filtered queries against V3's TINYINT ordinal columns and against V1's
+// VARCHAR(255) enum names, with the (status, due_date) index on either
+// Plain SQL, because the entities can only read the ordinal form - the statements match
+// what Hibernate issues for BillRepository's findByStatus and lockDueBills, minus the
+// patient join and the row lock
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusColumnBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"tinyint", "varchar"})
+    public String statusColumn;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbc;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(rows);
+        if (statusColumn.equals("varchar")) {
+            database.restoreVarcharStatus();
+        }
+        jdbc = database.bean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public long billsByStatus() {
+        BillStatus status = BillStatus.values()[next++ % BillStatus.values().length];
+        return count("select * from bills where status = ?", value(status));
+    }
+
+    // One overdue-sweep chunk
+    @Benchmark
+    public long dueBillsChunk() {
+        return count("select * from bills where status = ? and due_date < ? fetch first 500 rows only",
+                value(BillStatus.PENDING), LocalDateTime.now());
+    }
+
+    private Object value(BillStatus status) {
+        return statusColumn.equals("varchar") ? status.name() : status.ordinal();
+    }
+
+    private long count(String sql, Object... args) {
+        long[] count = {0};
+        jdbc.query(sql, row -> {
+            count[0]++;
+        }, args);
+        return count[0];
+    }
+}
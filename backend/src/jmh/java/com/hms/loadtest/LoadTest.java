@@ -0,0 +1,280 @@
+package com.hms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hms.benchmark.BenchmarkDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// End-to-end HTTP load test - boots the app on a random port against a seeded H2,
+// drives a weighted mix of routes from many concurrent clients and writes throughput
+// and latency percentiles per route to a JSON file
+//
+//   mvn -Pjmh test-compile exec:exec@loadtest -Dloadtest.args="--mix booking-rush --clients 128"
+//
+// Options: --mix front-desk|booking-rush|retry-storm, --rows 100000, --clients 64, --duration 30 (seconds),
+// --warmup 5 (seconds, not recorded), --profile virtual-threads (comma-separated Spring profiles),
+// --out target/loadtest-<mix>.json
+//
+// Each client is closed-loop (sends the next request when the last one answers), so the
+// numbers are service time under the given concurrency, not latency at a fixed arrival rate
+public final class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // How often retry-storm sends each booking
+    private static final int RETRIES = 8;
+
+    // One kind of request in a mix, picked with probability weight / total weight
+    private record Route(String name, int weight, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest.Builder build(ThreadLocalRandom random);
+    }
+
+    // What is collected for one route while the test runs
+    private static final class RouteStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder failures = new LongAdder();
+    }
+
+    private final BenchmarkDatabase db;
+    private final String baseUrl;
+    private final HttpClient client;
+    // Booking rush hands out distinct future slots so bookings don't all end in 409
+    private final AtomicLong bookingSequence = new AtomicLong();
+    private final LocalDate bookingStart = LocalDate.now().plusYears(1);
+
+    private volatile Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    private LoadTest(BenchmarkDatabase db) {
+        this.db = db;
+        this.baseUrl = "http://localhost:" + db.port();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String mix = options.getOrDefault("mix", "front-desk");
+        int rows = Integer.parseInt(options.getOrDefault("rows", "100000"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        String profile = options.getOrDefault("profile", "");
+        String[] profiles = profile.isBlank() ? new String[0] : profile.split(",");
+        Path out = Path.of(options.getOrDefault("out",
+                "target/loadtest-" + mix + (profile.isBlank() ? "" : "-" + profile.replace(',', '-')) + ".json"));
+
+        System.out.printf("Seeding %d rows and starting the server...%n", rows);
+        try (BenchmarkDatabase db = BenchmarkDatabase.startWithServer(rows, profiles)) {
+            LoadTest test = new LoadTest(db);
+            List<Route> routes = test.mix(mix);
+            System.out.printf("Running '%s' on port %d: %d clients, %ds warmup, %ds measured%n",
+                    mix, db.port(), clients, warmup, duration);
+            long appointmentsBefore = test.countAppointments();
+            Map<String, Object> report = test.run(routes, clients, warmup, duration);
+            // Includes the warmup - compare with the number of bookings sent, not the measured requests
+            report.put("appointmentsInserted", test.countAppointments() - appointmentsBefore);
+            report.put("bookingRequestsSent", test.bookingSequence.get());
+            report.put("mix", mix);
+            report.put("rows", rows);
+            report.put("clients", clients);
+            report.put("profiles", List.of(profiles));
+            write(report, out);
+            System.out.printf("Report written to %s%n", out.toAbsolutePath());
+        }
+    }
+
+    private List<Route> mix(String name) {
+        return switch (name) {
+            // Reception: mostly lookups and reads, the odd login
+            case "front-desk" -> List.of(
+                    new Route("GET /api/patients/{id}", 20, r -> get("/api/patients/" + db.patientId(r.nextInt(db.patients)))),
+                    new Route("GET /api/patients/search", 15, r -> get("/api/patients/search?q=patient+" + r.nextInt(db.patients))),
+                    new Route("GET /api/lookup", 20, r -> get("/api/lookup?prefix=Patient+" + r.nextInt(1, 100) + "&limit=10")),
+                    new Route("GET /api/patients", 10, r -> get("/api/patients?after=" + db.patientId(r.nextInt(db.patients)) + "&limit=20")),
+                    new Route("GET /api/doctors/{id}", 10, r -> get("/api/doctors/" + db.doctorId(r.nextInt(db.doctors)))),
+                    new Route("GET /api/appointments", 8, r -> get("/api/appointments?after=" + db.appointmentId(r.nextInt(db.rows)) + "&limit=20")),
+                    new Route("GET /api/availability", 10, r -> get("/api/availability?specialty=Specialty+" + r.nextInt(20))),
+                    new Route("GET /api/patients/{id}/balance", 5, r -> get("/api/patients/" + db.patientId(r.nextInt(db.patients)) + "/balance")),
+                    new Route("GET /api/v1/auth/status", 1, r -> get("/api/v1/auth/status")),
+                    new Route("POST /api/v1/auth/login", 1, r -> post("/api/v1/auth/login", "{\"username\":\"frontdesk\",\"password\":\"frontdesk123\"}")));
+            // Shift start at the clinics: booking and billing writes with availability checks in between
+            case "booking-rush" -> List.of(
+                    new Route("POST /api/appointments", 40, r -> post("/api/appointments", booking(bookingSequence.getAndIncrement()))),
+                    new Route("POST /api/bills", 20, r -> post("/api/bills", bill(r))),
+                    new Route("GET /api/availability", 25, r -> get("/api/availability?specialty=Specialty+" + r.nextInt(20))),
+                    new Route("GET /api/appointments/{id}", 10, r -> get("/api/appointments/" + db.appointmentId(r.nextInt(db.rows)))),
+                    new Route("GET /api/v1/auth/status", 5, r -> get("/api/v1/auth/status")));
+            // Timed-out clients retrying: every booking is sent RETRIES times with the same
+            // Idempotency-Key, mostly concurrently - appointmentsInserted should equal the distinct keys
+            case "retry-storm" -> List.of(
+                    new Route("POST /api/appointments (retried)", 1, r -> {
+                        long booking = bookingSequence.getAndIncrement() / RETRIES;
+                        return post("/api/appointments", booking(booking)).header("Idempotency-Key", "storm-" + booking);
+                    }));
+            default -> throw new IllegalArgumentException("Unknown mix '" + name + "' - use front-desk, booking-rush or retry-storm");
+        };
+    }
+
+    private Map<String, Object> run(List<Route> routes, int clients, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        int totalWeight = routes.stream().mapToInt(Route::weight).sum();
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(durationSeconds).toNanos();
+
+        List<Thread> workers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread worker = new Thread(() -> drive(routes, totalWeight, end), "load-client-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        // Throw away everything recorded during warmup
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        stats = new ConcurrentHashMap<>();
+        long measuredFrom = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+        return report(routes, seconds);
+    }
+
+    private void drive(List<Route> routes, int totalWeight, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            Route route = pick(routes, totalWeight, random);
+            HttpRequest request = route.factory().build(random).timeout(REQUEST_TIMEOUT).build();
+            RouteStats routeStats = stats.computeIfAbsent(route.name(), n -> new RouteStats());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                routeStats.latency.record(System.nanoTime() - start);
+                routeStats.statuses.computeIfAbsent(response.statusCode(), s -> new LongAdder()).increment();
+            } catch (IOException e) {
+                routeStats.failures.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Map<String, Object> report(List<Route> routes, double seconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("measuredSeconds", seconds);
+        long total = 0;
+        Map<String, Object> perRoute = new LinkedHashMap<>();
+        for (Route route : routes) {
+            RouteStats routeStats = stats.get(route.name());
+            if (routeStats == null) {
+                continue;
+            }
+            LatencyHistogram latency = routeStats.latency;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", latency.count());
+            entry.put("throughputPerSecond", latency.count() / seconds);
+            entry.put("meanMs", latency.meanNanos() / 1e6);
+            entry.put("p50Ms", latency.percentileNanos(0.50) / 1e6);
+            entry.put("p99Ms", latency.percentileNanos(0.99) / 1e6);
+            entry.put("p999Ms", latency.percentileNanos(0.999) / 1e6);
+            entry.put("maxMs", latency.maxNanos() / 1e6);
+            Map<String, Long> statuses = new HashMap<>();
+            routeStats.statuses.forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+            entry.put("statusCounts", statuses);
+            entry.put("ioFailures", routeStats.failures.sum());
+            perRoute.put(route.name(), entry);
+            total += latency.count();
+            System.out.printf("%-34s %8d req %9.1f/s  p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms%n", route.name(),
+                    latency.count(), latency.count() / seconds, latency.percentileNanos(0.50) / 1e6,
+                    latency.percentileNanos(0.99) / 1e6, latency.percentileNanos(0.999) / 1e6);
+        }
+        report.put("totalRequests", total);
+        report.put("throughputPerSecond", total / seconds);
+        report.put("routes", perRoute);
+        return report;
+    }
+
+    private long countAppointments() {
+        return db.bean(JdbcTemplate.class).queryForObject("select count(*) from appointments", Long.class);
+    }
+
+    private static Route pick(List<Route> routes, int totalWeight, ThreadLocalRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Route route : routes) {
+            roll -= route.weight();
+            if (roll < 0) {
+                return route;
+            }
+        }
+        return routes.get(routes.size() - 1);
+    }
+
+    // Next free slot in the booking calendar - doctors round-robin, 20 slots a day from 08:00
+    // The same n always gives the same body, so retries of a booking are byte-for-byte equal
+    private String booking(long n) {
+        long slot = n / db.doctors;
+        LocalDateTime start = bookingStart.plusDays(slot / 20).atTime(8, 0).plusMinutes(30 * (slot % 20));
+        return "{\"patient\":{\"id\":" + db.patientId((int) (n % db.patients)) + "},"
+                + "\"doctor\":{\"id\":" + db.doctorId((int) (n % db.doctors)) + "},"
+                + "\"appointmentDateTime\":\"" + start + "\",\"reasonForVisit\":\"Load test booking\"}";
+    }
+
+    private String bill(ThreadLocalRandom random) {
+        return "{\"patient\":{\"id\":" + db.patientId(random.nextInt(db.patients)) + "},"
+                + "\"amount\":" + random.nextInt(20, 500) + ".00,"
+                + "\"dueDate\":\"" + LocalDate.now().plusDays(30).atStartOfDay() + "\",\"description\":\"Load test bill\"}";
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static void write(Map<String, Object> report, Path out) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+    }
+}
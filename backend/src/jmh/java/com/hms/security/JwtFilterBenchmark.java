@@ -0,0 +1,78 @@
+package com.hms.security;
+
+import com.hms.benchmark.BenchmarkDatabase;
+import com.hms.model.Role;
+import com.hms.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of JWT authentication - the filter with a cached token against a full
+// signature check and parse, which is what every request paid without the cache
+// No Spring context or database involved
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(BenchmarkDatabase.randomKey(), 60, 10_000);
+        filter = new JwtAuthenticationFilter(jwtService);
+        Role role = new Role();
+        role.setName("RECEPTIONIST");
+        User user = new User();
+        user.setUsername("frontdesk");
+        user.setRoles(new HashSet<>(Set.of(role)));
+        token = jwtService.issue(user);
+        request = new MockHttpServletRequest("GET", "/api/patients/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    // The whole filter, token already verified once - the steady state for a logged-in client
+    @Benchmark
+    public Authentication filterCachedToken() throws Exception {
+        filter.doFilterInternal(request, response, new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication cachedLookup() {
+        return jwtService.authenticate(token);
+    }
+
+    // Signature check, claims parse and authority list - paid once per token
+    @Benchmark
+    public JwtService.VerifiedToken fullVerification() {
+        return jwtService.verify(token);
+    }
+}
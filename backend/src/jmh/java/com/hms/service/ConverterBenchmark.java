@@ -0,0 +1,77 @@
+package com.hms.service;
+
+import com.hms.benchmark.BenchmarkDatabase;
+import com.hms.model.Appointment;
+import com.hms.model.Bill;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.BillRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO conversion for a page of 1000 appointments / bills
+// Lives in com.hms.service to reach the package-private converters
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int PAGE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private HospitalService hospitalService;
+    private List<Appointment> appointments;
+    private List<Bill> bills;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start(rows);
+        hospitalService = database.bean(HospitalService.class);
+        List<Long> ids = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            ids.add(database.appointmentId(i * (rows / PAGE)));
+        }
+        appointments = database.bean(AppointmentRepository.class).findAllById(ids);
+        bills = database.bean(BillRepository.class).findAllById(ids);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public void convertToAppointmentDTO(Blackhole blackhole) {
+        for (Appointment appointment : appointments) {
+            blackhole.consume(hospitalService.convertToAppointmentDTO(appointment));
+        }
+    }
+
+    @Benchmark
+    public void convertToBillDTO(Blackhole blackhole) {
+        for (Bill bill : bills) {
+            blackhole.consume(hospitalService.convertToBillDTO(bill));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.hms.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Turns on the Spring Cache abstraction - Boot wires up Caffeine from the
+// spring.cache.* settings in application.properties (size + TTL bounded, with stats)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Cache names used by HospitalService
+    public static final String DOCTORS = "doctors";
+    public static final String PATIENTS = "patients";
+    public static final String DOCTORS_BY_SPECIALTY = "doctorsBySpecialty";
+}
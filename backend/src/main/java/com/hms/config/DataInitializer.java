@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -28,7 +29,9 @@ public class DataInitializer implements CommandLineRunner {
     private final AppointmentRepository appointmentRepository;
     private final BillRepository billRepository;
 
+    // Read-write so the "is it empty?" check sees the primary, not a replica
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
         // Only load data if the database is empty - don't want duplicates!
         if (doctorRepository.count() == 0) {
@@ -106,35 +109,35 @@ public class DataInitializer implements CommandLineRunner {
         List<Appointment> appointments = Arrays.asList(
             createAppointment(patients.get(0), doctors.get(0), 
                 LocalDateTime.now().plusDays(1).withHour(10).withMinute(0), 
-                "SCHEDULED", "Regular checkup for heart condition", "Patient needs ECG and blood pressure monitoring"),
+                AppointmentStatus.SCHEDULED, "Regular checkup for heart condition", "Patient needs ECG and blood pressure monitoring"),
             
             createAppointment(patients.get(1), doctors.get(2), 
                 LocalDateTime.now().plusDays(2).withHour(14).withMinute(30), 
-                "SCHEDULED", "Child's annual wellness visit", "Vaccination update needed"),
+                AppointmentStatus.SCHEDULED, "Child's annual wellness visit", "Vaccination update needed"),
             
             createAppointment(patients.get(2), doctors.get(3), 
                 LocalDateTime.now().minusDays(1).withHour(11).withMinute(0), 
-                "COMPLETED", "Follow-up on knee surgery", "Patient recovering well, physical therapy recommended"),
+                AppointmentStatus.COMPLETED, "Follow-up on knee surgery", "Patient recovering well, physical therapy recommended"),
             
             createAppointment(patients.get(3), doctors.get(4), 
                 LocalDateTime.now().plusDays(3).withHour(9).withMinute(15), 
-                "SCHEDULED", "Skin examination", "Routine skin cancer screening"),
+                AppointmentStatus.SCHEDULED, "Skin examination", "Routine skin cancer screening"),
             
             createAppointment(patients.get(4), doctors.get(1), 
                 LocalDateTime.now().minusDays(2).withHour(15).withMinute(45), 
-                "COMPLETED", "Migraine consultation", "New medication prescribed, follow up in 2 weeks"),
+                AppointmentStatus.COMPLETED, "Migraine consultation", "New medication prescribed, follow up in 2 weeks"),
             
             createAppointment(patients.get(5), doctors.get(6), 
                 LocalDateTime.now().plusDays(4).withHour(13).withMinute(0), 
-                "SCHEDULED", "Therapy session", "Discuss anxiety management techniques"),
+                AppointmentStatus.SCHEDULED, "Therapy session", "Discuss anxiety management techniques"),
             
             createAppointment(patients.get(6), doctors.get(5), 
                 LocalDateTime.now().minusDays(3).withHour(8).withMinute(30), 
-                "COMPLETED", "Pre-operative consultation", "Surgery scheduled for next month"),
+                AppointmentStatus.COMPLETED, "Pre-operative consultation", "Surgery scheduled for next month"),
             
             createAppointment(patients.get(7), doctors.get(7), 
                 LocalDateTime.now().plusDays(5).withHour(16).withMinute(0), 
-                "SCHEDULED", "Cancer treatment follow-up", "Review chemotherapy progress")
+                AppointmentStatus.SCHEDULED, "Cancer treatment follow-up", "Review chemotherapy progress")
         );
 
         appointmentRepository.saveAll(appointments);
@@ -142,7 +145,7 @@ public class DataInitializer implements CommandLineRunner {
     }
 
     private Appointment createAppointment(Patient patient, Doctor doctor, LocalDateTime dateTime, 
-                                         String status, String reason, String notes) {
+                                         AppointmentStatus status, String reason, String notes) {
         Appointment appointment = new Appointment();
         appointment.setPatient(patient);
         appointment.setDoctor(doctor);
@@ -157,35 +160,35 @@ public class DataInitializer implements CommandLineRunner {
         List<Patient> patients = patientRepository.findAll();
 
         List<Bill> bills = Arrays.asList(
-            createBill(patients.get(0), new BigDecimal("250.00"), "PAID", 
+            createBill(patients.get(0), new BigDecimal("250.00"), BillStatus.PAID, 
                 LocalDateTime.now().minusDays(30), LocalDateTime.now().minusDays(15), 
                 "Cardiology consultation fee", LocalDateTime.now().minusDays(10)),
             
-            createBill(patients.get(1), new BigDecimal("150.00"), "PENDING", 
+            createBill(patients.get(1), new BigDecimal("150.00"), BillStatus.PENDING, 
                 LocalDateTime.now().minusDays(7), LocalDateTime.now().plusDays(8), 
                 "Pediatric visit and vaccination", null),
             
-            createBill(patients.get(2), new BigDecimal("500.00"), "PAID", 
+            createBill(patients.get(2), new BigDecimal("500.00"), BillStatus.PAID, 
                 LocalDateTime.now().minusDays(45), LocalDateTime.now().minusDays(30), 
                 "Orthopedic surgery follow-up", LocalDateTime.now().minusDays(25)),
             
-            createBill(patients.get(3), new BigDecimal("200.00"), "OVERDUE", 
+            createBill(patients.get(3), new BigDecimal("200.00"), BillStatus.OVERDUE, 
                 LocalDateTime.now().minusDays(60), LocalDateTime.now().minusDays(15), 
                 "Dermatology examination", null),
             
-            createBill(patients.get(4), new BigDecimal("300.00"), "PAID", 
+            createBill(patients.get(4), new BigDecimal("300.00"), BillStatus.PAID, 
                 LocalDateTime.now().minusDays(20), LocalDateTime.now().minusDays(5), 
                 "Neurology consultation and tests", LocalDateTime.now().minusDays(3)),
             
-            createBill(patients.get(5), new BigDecimal("180.00"), "PENDING", 
+            createBill(patients.get(5), new BigDecimal("180.00"), BillStatus.PENDING, 
                 LocalDateTime.now().minusDays(3), LocalDateTime.now().plusDays(12), 
                 "Psychiatry session", null),
             
-            createBill(patients.get(6), new BigDecimal("750.00"), "PENDING", 
+            createBill(patients.get(6), new BigDecimal("750.00"), BillStatus.PENDING, 
                 LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(14), 
                 "Surgical consultation fee", null),
             
-            createBill(patients.get(7), new BigDecimal("1200.00"), "PAID", 
+            createBill(patients.get(7), new BigDecimal("1200.00"), BillStatus.PAID, 
                 LocalDateTime.now().minusDays(90), LocalDateTime.now().minusDays(75), 
                 "Oncology treatment session", LocalDateTime.now().minusDays(70))
         );
@@ -194,7 +197,7 @@ public class DataInitializer implements CommandLineRunner {
         log.info("Created {} bills", bills.size());
     }
 
-    private Bill createBill(Patient patient, BigDecimal amount, String status, 
+    private Bill createBill(Patient patient, BigDecimal amount, BillStatus status, 
                           LocalDateTime billDate, LocalDateTime dueDate, 
                           String description, LocalDateTime paymentDate) {
         Bill bill = new Bill();
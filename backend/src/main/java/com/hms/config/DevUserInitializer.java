@@ -0,0 +1,67 @@
+package com.hms.config;
+
+import com.hms.model.Role;
+import com.hms.model.User;
+import com.hms.repository.RoleRepository;
+import com.hms.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Demo login accounts - one per role, with passwords everyone can read in this file,
+// so they only exist when the dev profile is switched on
+@Component
+@Profile("dev")
+@RequiredArgsConstructor
+@Slf4j
+public class DevUserInitializer implements CommandLineRunner {
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        if (userRepository.count() > 0) {
+            return;
+        }
+        Role admin = roleRepository.save(createRole("ADMIN"));
+        Role doctor = roleRepository.save(createRole("DOCTOR"));
+        Role receptionist = roleRepository.save(createRole("RECEPTIONIST"));
+
+        List<User> users = Arrays.asList(
+            createUser("admin", "admin@hms.local", "admin123", Set.of(admin)),
+            createUser("doctor", "doctor@hms.local", "doctor123", Set.of(doctor)),
+            createUser("frontdesk", "frontdesk@hms.local", "frontdesk123", Set.of(receptionist))
+        );
+        userRepository.saveAll(users);
+        log.info("Created {} demo user accounts (dev profile)", users.size());
+    }
+
+    private Role createRole(String name) {
+        Role role = new Role();
+        role.setName(name);
+        return role;
+    }
+
+    private User createUser(String username, String email, String password, Set<Role> roles) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        // Only the BCrypt hash is stored
+        user.setPassword(passwordEncoder.encode(password));
+        user.setEnabled(true);
+        user.setRoles(new HashSet<>(roles));
+        return user;
+    }
+}
@@ -0,0 +1,19 @@
+package com.hms.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Metrics wiring that Actuator can't do on its own
+// Everything else (route latency, Hibernate statistics, Hikari pool, JVM) is auto-configured
+// from the management.* settings in application.properties
+@Configuration
+public class MetricsConfig {
+
+    // Hooks the per-request statement counter into Hibernate
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+}
@@ -0,0 +1,25 @@
+package com.hms.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts the JDBC statements Hibernate prepares on the current thread
+// Registered as the session factory's statement inspector by MetricsConfig, read and
+// reset per request by QueryCountFilter - the SQL itself is passed through untouched
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,95 @@
+package com.hms.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Read-your-writes on top of replica routing (registered by ReplicaRoutingConfig)
+// Once a request has opened a read-write transaction, its later read-only transactions
+// stay on the primary. The response also carries a short-lived cookie, so the client's
+// next requests inside the replica lag window read from the primary too and can't see
+// their own change disappear
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "hms-primary-until";
+
+    // Per-request routing state - null outside HTTP requests, which then just follow the transaction
+    private static final class State {
+        final HttpServletResponse response;
+        final long windowMillis;
+        boolean pinned;
+        boolean cookieSent;
+
+        State(HttpServletResponse response, long windowMillis, boolean pinned) {
+            this.response = response;
+            this.windowMillis = windowMillis;
+            this.pinned = pinned;
+        }
+    }
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    // True when read-only work on this thread must go to the primary
+    static boolean pinnedToPrimary() {
+        State state = CURRENT.get();
+        return state != null && state.pinned;
+    }
+
+    // Called by the routing data source when a read-write transaction takes a connection
+    static void writeStarted() {
+        State state = CURRENT.get();
+        if (state == null) {
+            return;
+        }
+        state.pinned = true;
+        if (!state.cookieSent && !state.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(System.currentTimeMillis() + state.windowMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (state.windowMillis + 999) / 1000));
+            state.response.addCookie(cookie);
+            state.cookieSent = true;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        CURRENT.set(new State(response, windowMillis, wroteRecently(request)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    private static boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to the replicas (round robin) and everything else to the primary
+// Only works behind a LazyConnectionDataSourceProxy: the connection must be fetched at the
+// first statement, after Spring has marked the transaction read-only. It also needs
+// spring.jpa.open-in-view=false - otherwise the request's first connection is kept for
+// every later transaction, writes included
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && !ReadYourWritesFilter.pinnedToPrimary()) {
+            return Math.floorMod(next.getAndIncrement(), replicas.size());
+        }
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+            ReadYourWritesFilter.writeStarted();
+        }
+        return PRIMARY;
+    }
+
+    // The primary pool is a bean and closed by Spring; the replica pools are ours
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,10 @@
+package com.hms.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Turns on @Scheduled jobs (currently the overdue-bill sweep)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,27 +1,61 @@
 package com.hms.config;
 
+import com.hms.security.JwtAuthenticationEntryPoint;
+import com.hms.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Off by default so the demo pages keep working without logging in - the JWT is still
+    // verified whenever one is sent. Set hms.security.require-authentication=true to lock
+    // the API down to token holders
+    @Value("${hms.security.require-authentication:false}")
+    private boolean requireAuthentication;
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           JwtAuthenticationEntryPoint entryPoint) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authorizeHttpRequests(auth -> auth
-                // COMPLETELY DISABLE SECURITY FOR COLLEGE DEMO
-                .anyRequest().permitAll()
-            )
+            .authorizeHttpRequests(auth -> {
+                if (requireAuthentication) {
+                    auth.requestMatchers("/api/v1/auth/**").permitAll()
+                        .requestMatchers("/api/**").authenticated();
+                }
+                // COMPLETELY DISABLE SECURITY FOR COLLEGE DEMO (everything else is public)
+                auth.anyRequest().permitAll();
+            })
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(entryPoint))
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .headers(headers -> headers.frameOptions().disable());
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    // The JWT filter belongs inside the security chain only - stop Boot from also
+    // registering it as a plain servlet filter
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtFilterRegistration(JwtAuthenticationFilter filter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
@@ -1,11 +1,26 @@
 package com.hms.controller;
 
+import com.hms.model.LoginDTO;
+import com.hms.model.LoginResponse;
+import com.hms.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
+    private final AuthService authService;
+
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
     // Simple status endpoint to check if the auth system is working
     // I use this to make sure the server started up correctly
     @GetMapping("/status")
@@ -13,10 +28,13 @@ public class AuthController {
         return "Auth status endpoint ready";
     }
 
-    // Login endpoint - would handle username/password validation here
-    // For the college demo, I kept it simple since security is disabled
+    // Login endpoint - checks the username/password and returns a JWT to send as
+    // "Authorization: Bearer <token>" on later requests
+    // Returns a future so the request thread is released while the password hash is checked
     @PostMapping("/login")
-    public String login() {
-        return "Login endpoint - ready for implementation";
+    @Operation(summary = "Log in", description = "Exchange a username and password for a JWT (503 when too many logins are queued)")
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginDTO loginDTO) {
+        return authService.login(loginDTO).thenApply(response ->
+                ResponseEntity.status(response.isAuthenticated() ? HttpStatus.OK : HttpStatus.UNAUTHORIZED).body(response));
     }
 }
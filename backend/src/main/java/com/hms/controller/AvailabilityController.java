@@ -0,0 +1,36 @@
+package com.hms.controller;
+
+import com.hms.model.AvailableSlot;
+import com.hms.service.HospitalService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/availability")
+@Tag(name = "Availability", description = "Free appointment slots by specialty, answered from the in-memory availability index")
+public class AvailabilityController {
+
+    private final HospitalService hospitalService;
+
+    public AvailabilityController(HospitalService hospitalService) {
+        this.hospitalService = hospitalService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Find free slots", description = "Free slots for doctors of a specialty between from and to, earliest first (defaults to the next 7 days)")
+    public List<AvailableSlot> findFreeSlots(@Parameter(description = "Specialty, e.g. Cardiology") @RequestParam String specialty,
+                                             @Parameter(description = "Earliest slot start (ISO date-time), defaults to now") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @Parameter(description = "Latest slot end (ISO date-time), defaults to from + 7 days") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                             @Parameter(description = "Maximum number of slots (max 500)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.findFreeSlots(specialty, from, to, limit);
+    }
+}
@@ -4,37 +4,96 @@ import com.hms.model.DoctorDTO;
 import com.hms.model.PatientDTO;
 import com.hms.model.AppointmentDTO;
 import com.hms.model.BillDTO;
+import com.hms.model.BulkBookingResult;
+import com.hms.model.BulkImportResult;
+import com.hms.model.CursorPage;
+import com.hms.model.LookupMatch;
+import com.hms.model.PatientSummary;
+import com.hms.model.SweepReport;
+import com.hms.model.AppointmentSummary;
+import com.hms.model.AppointmentUpdate;
+import com.hms.model.AppointmentUpdateResult;
+import com.hms.model.BillSummary;
+import com.hms.model.BillingBalance;
 import com.hms.service.HospitalService;
+import com.hms.service.IdempotencyStore;
+import com.hms.service.OverdueBillSweeper;
+import com.hms.service.PatientImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
 @Tag(name = "Hospital Management API", description = "APIs for managing doctors and patients in the hospital system")
 public class HospitalController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final HospitalService hospitalService;
+    private final PatientImportService patientImportService;
+    private final OverdueBillSweeper overdueBillSweeper;
+    private final IdempotencyStore idempotencyStore;
 
     // Constructor injection - Spring handles this automatically
-    public HospitalController(HospitalService hospitalService) {
+    public HospitalController(HospitalService hospitalService, PatientImportService patientImportService,
+                              OverdueBillSweeper overdueBillSweeper, IdempotencyStore idempotencyStore) {
         this.hospitalService = hospitalService;
+        this.patientImportService = patientImportService;
+        this.overdueBillSweeper = overdueBillSweeper;
+        this.idempotencyStore = idempotencyStore;
     }
 
     // Doctor endpoints - I kept these separate from patients for clarity
     @GetMapping("/doctors")
-    @Operation(summary = "Get all doctors", description = "Retrieve a list of all doctors in the hospital")
+    @Operation(summary = "List doctors", description = "Keyset-paginated list of doctors - pass nextCursor back as 'after' to get the next page")
+    public CursorPage<DoctorDTO> getDoctors(@Parameter(description = "Return doctors with an ID greater than this") @RequestParam(required = false) Long after, @Parameter(description = "Page size (max 100)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.getDoctors(after, limit);
+    }
+
+    // The old unbounded list is only returned when the caller explicitly asks for it
+    @GetMapping(value = "/doctors", params = "all=true")
+    @Operation(summary = "Get all doctors", description = "Retrieve a list of all doctors in the hospital (unbounded, use with care)")
     public List<DoctorDTO> getAllDoctors() {
         return hospitalService.getAllDoctors();
     }
 
+    @GetMapping(value = "/doctors", params = "specialty")
+    @Operation(summary = "Get doctors by specialty", description = "Find all doctors with the given specialty (cached)")
+    public List<DoctorDTO> getDoctorsBySpecialty(@Parameter(description = "Specialty, e.g. Cardiology") @RequestParam String specialty) {
+        return hospitalService.getDoctorsBySpecialty(specialty);
+    }
+
     @GetMapping("/doctors/{id}")
     @Operation(summary = "Get doctor by ID", description = "Find a specific doctor by their ID")
-    public DoctorDTO getDoctorById(@Parameter(description = "Doctor ID") @PathVariable Long id) {
-        return hospitalService.getDoctorById(id);
+    public ResponseEntity<DoctorDTO> getDoctorById(@Parameter(description = "Doctor ID") @PathVariable Long id, WebRequest request) {
+        // Client already has this version - answer 304 without building the body
+        String current = etag(hospitalService.getDoctorVersion(id));
+        if (clientHas(request, current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        // The body comes from the cache, so the tag is taken from the same DTO - a probe
+        // that raced an update could otherwise label the old cached body with the new version
+        DoctorDTO doctor = hospitalService.getDoctorById(id);
+        return ResponseEntity.ok().eTag(etag(doctor.getVersion())).body(doctor);
     }
 
     @PostMapping("/doctors")
@@ -56,23 +115,68 @@ public class HospitalController {
         return "Doctor deleted successfully";
     }
 
+    // Typeahead for the registration desk - called on every keystroke
+    @GetMapping("/lookup")
+    @Operation(summary = "Typeahead lookup", description = "Patients by name or phone prefix and doctors by name or license number prefix, from an in-memory prefix index")
+    public List<LookupMatch> lookup(@Parameter(description = "What the user has typed so far") @RequestParam String prefix, @Parameter(description = "'patient' or 'doctor' to narrow the results") @RequestParam(required = false) String type, @Parameter(description = "Maximum results (max 50)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.lookup(prefix, type, limit);
+    }
+
     // Patient endpoints
     @GetMapping("/patients")
-    @Operation(summary = "Get all patients", description = "Retrieve a list of all patients in the hospital")
-    public List<PatientDTO> getAllPatients() {
+    @Operation(summary = "List patients", description = "Keyset-paginated list of patients - pass nextCursor back as 'after' to get the next page")
+    public CursorPage<PatientSummary> getPatients(@Parameter(description = "Return patients with an ID greater than this") @RequestParam(required = false) Long after, @Parameter(description = "Page size (max 100)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.getPatients(after, limit);
+    }
+
+    // The old unbounded list is only returned when the caller explicitly asks for it
+    @GetMapping(value = "/patients", params = "all=true")
+    @Operation(summary = "Get all patients", description = "Retrieve a list of all patients in the hospital (unbounded, use with care)")
+    public List<PatientSummary> getAllPatients() {
         return hospitalService.getAllPatients();
     }
 
+    @GetMapping("/patients/search")
+    @Operation(summary = "Search patients", description = "Ranked full-text search over name, email, phone and medical history - every word must match")
+    public List<PatientSummary> searchPatients(@Parameter(description = "Search words, e.g. 'john diabetes'") @RequestParam String q, @Parameter(description = "Maximum results (max 100)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.searchPatients(q, limit);
+    }
+
     @GetMapping("/patients/{id}")
     @Operation(summary = "Get patient by ID", description = "Find a specific patient by their ID")
-    public PatientDTO getPatientById(@Parameter(description = "Patient ID") @PathVariable Long id) {
-        return hospitalService.getPatientById(id);
+    public ResponseEntity<PatientDTO> getPatientById(@Parameter(description = "Patient ID") @PathVariable Long id, WebRequest request) {
+        String current = etag(hospitalService.getPatientVersion(id));
+        if (clientHas(request, current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        // Tag and body from the same cached DTO, as for doctors
+        PatientDTO patient = hospitalService.getPatientById(id);
+        return ResponseEntity.ok().eTag(etag(patient.getVersion())).body(patient);
+    }
+
+    @GetMapping("/patients/{id}/balance")
+    @Operation(summary = "Patient balance", description = "Outstanding balance and bill counts/amounts by status, from running aggregates")
+    public BillingBalance getPatientBalance(@Parameter(description = "Patient ID") @PathVariable Long id) {
+        return hospitalService.getPatientBalance(id);
     }
 
     @PostMapping("/patients")
     @Operation(summary = "Add new patient", description = "Create a new patient record in the system")
-    public PatientDTO createPatient(@Parameter(description = "Patient data") @RequestBody PatientDTO patientDTO) {
-        return hospitalService.createPatient(patientDTO);
+    public ResponseEntity<PatientDTO> createPatient(@Parameter(description = "Makes retries safe - a repeated key returns the first response") @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey, @Parameter(description = "Patient data") @RequestBody PatientDTO patientDTO) {
+        return idempotent("POST /api/patients", idempotencyKey, patientDTO, () -> hospitalService.createPatient(patientDTO));
+    }
+
+    // Bulk registration - the body is read as a stream, so very large uploads are fine
+    @PostMapping(value = "/patients/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Bulk import patients (JSON)", description = "Import a JSON array of patients in batched chunks; failed rows are reported without aborting the rest")
+    public BulkImportResult importPatientsJson(InputStream body) throws IOException {
+        return patientImportService.importJson(body);
+    }
+
+    @PostMapping(value = "/patients/bulk", consumes = "text/csv")
+    @Operation(summary = "Bulk import patients (CSV)", description = "Import CSV rows (header: name,email,phone,dateOfBirth,medicalHistory) in batched chunks")
+    public BulkImportResult importPatientsCsv(InputStream body) throws IOException {
+        return patientImportService.importCsv(body);
     }
 
     @PutMapping("/patients/{id}")
@@ -90,21 +194,56 @@ public class HospitalController {
 
     // Appointment endpoints
     @GetMapping("/appointments")
-    @Operation(summary = "Get all appointments", description = "Retrieve a list of all appointments in the hospital")
-    public List<AppointmentDTO> getAllAppointments() {
+    @Operation(summary = "List appointments", description = "Keyset-paginated list of appointments - pass nextCursor back as 'after' to get the next page")
+    public CursorPage<AppointmentSummary> getAppointments(@Parameter(description = "Return appointments with an ID greater than this") @RequestParam(required = false) Long after, @Parameter(description = "Page size (max 100)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.getAppointments(after, limit);
+    }
+
+    // The old unbounded list is only returned when the caller explicitly asks for it
+    @GetMapping(value = "/appointments", params = "all=true")
+    @Operation(summary = "Get all appointments", description = "Retrieve a list of all appointments in the hospital (unbounded, use with care)")
+    public List<AppointmentSummary> getAllAppointments() {
         return hospitalService.getAllAppointments();
     }
 
+    @GetMapping("/appointments/export")
+    @Operation(summary = "Export appointments", description = "Stream every appointment as newline-delimited JSON (one object per line)")
+    public ResponseEntity<StreamingResponseBody> exportAppointments() {
+        StreamingResponseBody body = hospitalService::exportAppointments;
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     @GetMapping("/appointments/{id}")
     @Operation(summary = "Get appointment by ID", description = "Find a specific appointment by their ID")
-    public AppointmentDTO getAppointmentById(@Parameter(description = "Appointment ID") @PathVariable Long id) {
-        return hospitalService.getAppointmentById(id);
+    public ResponseEntity<AppointmentDTO> getAppointmentById(@Parameter(description = "Appointment ID") @PathVariable Long id, WebRequest request) {
+        // A queued update isn't in the row version yet, so skip the ETag until it commits
+        if (hospitalService.hasPendingAppointmentUpdate(id)) {
+            return ResponseEntity.ok(hospitalService.getAppointmentById(id));
+        }
+        String etag = etag(hospitalService.getAppointmentVersion(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(hospitalService.getAppointmentById(id));
     }
 
     @PostMapping("/appointments")
     @Operation(summary = "Add new appointment", description = "Create a new appointment record in the system")
-    public AppointmentDTO createAppointment(@Parameter(description = "Appointment data") @RequestBody AppointmentDTO appointmentDTO) {
-        return hospitalService.createAppointment(appointmentDTO);
+    public ResponseEntity<AppointmentDTO> createAppointment(@Parameter(description = "Makes retries safe - a repeated key returns the first response") @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey, @Parameter(description = "Appointment data") @RequestBody AppointmentDTO appointmentDTO) {
+        return idempotent("POST /api/appointments", idempotencyKey, appointmentDTO, () -> hospitalService.createAppointment(appointmentDTO));
+    }
+
+    // Consultation rooms update status and notes often - these are grouped into shared commits
+    @PatchMapping("/appointments/{id}")
+    @Operation(summary = "Update appointment status/notes", description = "Queues the change and answers once it has been committed together with other queued updates (503 when the queue is full)")
+    public CompletableFuture<AppointmentUpdateResult> updateAppointment(@Parameter(description = "Appointment ID") @PathVariable Long id, @Parameter(description = "New status and/or notes - omitted fields are unchanged") @RequestBody AppointmentUpdate update) {
+        return hospitalService.updateAppointment(id, update);
+    }
+
+    @PostMapping("/appointments/bulk")
+    @Operation(summary = "Book appointments in bulk", description = "Book a batch of appointments (e.g. a recurring series) in one transaction; returns a result per item")
+    public BulkBookingResult bookAppointments(@Parameter(description = "Appointments to book (patient and doctor by ID)") @RequestBody List<AppointmentDTO> appointments) {
+        return hospitalService.bookAppointments(appointments);
     }
 
     @DeleteMapping("/appointments/{id}")
@@ -116,21 +255,58 @@ public class HospitalController {
 
     // Billing endpoints
     @GetMapping("/bills")
-    @Operation(summary = "Get all bills", description = "Retrieve a list of all bills in the hospital")
-    public List<BillDTO> getAllBills() {
+    @Operation(summary = "List bills", description = "Keyset-paginated list of bills - pass nextCursor back as 'after' to get the next page")
+    public CursorPage<BillSummary> getBills(@Parameter(description = "Return bills with an ID greater than this") @RequestParam(required = false) Long after, @Parameter(description = "Page size (max 100)") @RequestParam(required = false) Integer limit) {
+        return hospitalService.getBills(after, limit);
+    }
+
+    // The old unbounded list is only returned when the caller explicitly asks for it
+    @GetMapping(value = "/bills", params = "all=true")
+    @Operation(summary = "Get all bills", description = "Retrieve a list of all bills in the hospital (unbounded, use with care)")
+    public List<BillSummary> getAllBills() {
         return hospitalService.getAllBills();
     }
 
+    @GetMapping("/bills/export")
+    @Operation(summary = "Export bills", description = "Stream every bill as newline-delimited JSON (one object per line)")
+    public ResponseEntity<StreamingResponseBody> exportBills() {
+        StreamingResponseBody body = hospitalService::exportBills;
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping("/bills/summary")
+    @Operation(summary = "Billing summary", description = "Hospital-wide outstanding balance and bill counts/amounts by status, from running aggregates")
+    public BillingBalance getBillingSummary() {
+        return hospitalService.getBillingSummary();
+    }
+
+    @GetMapping("/bills/overdue-sweep")
+    @Operation(summary = "Last overdue sweep", description = "How many bills the last overdue sweep moved to OVERDUE and how long it took (empty before the first run)")
+    public ResponseEntity<SweepReport> getLastOverdueSweep() {
+        SweepReport report = overdueBillSweeper.getLastReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/bills/overdue-sweep")
+    @Operation(summary = "Run overdue sweep", description = "Move PENDING bills past their due date to OVERDUE now instead of waiting for the schedule")
+    public SweepReport runOverdueSweep() {
+        return overdueBillSweeper.sweep();
+    }
+
     @GetMapping("/bills/{id}")
     @Operation(summary = "Get bill by ID", description = "Find a specific bill by their ID")
-    public BillDTO getBillById(@Parameter(description = "Bill ID") @PathVariable Long id) {
-        return hospitalService.getBillById(id);
+    public ResponseEntity<BillDTO> getBillById(@Parameter(description = "Bill ID") @PathVariable Long id, WebRequest request) {
+        String etag = etag(hospitalService.getBillVersion(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(hospitalService.getBillById(id));
     }
 
     @PostMapping("/bills")
     @Operation(summary = "Add new bill", description = "Create a new bill record in the system")
-    public BillDTO createBill(@Parameter(description = "Bill data") @RequestBody BillDTO billDTO) {
-        return hospitalService.createBill(billDTO);
+    public ResponseEntity<BillDTO> createBill(@Parameter(description = "Makes retries safe - a repeated key returns the first response") @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey, @Parameter(description = "Bill data") @RequestBody BillDTO billDTO) {
+        return idempotent("POST /api/bills", idempotencyKey, billDTO, () -> hospitalService.createBill(billDTO));
     }
 
     @DeleteMapping("/bills/{id}")
@@ -139,4 +315,56 @@ public class HospitalController {
         hospitalService.deleteBill(id);
         return "Bill deleted successfully";
     }
+
+    // Without a key the request just runs; with one, duplicates share the first response
+    // and replays are marked with Idempotent-Replayed: true
+    // Keys belong to the authenticated caller, if there is one
+    private <T> ResponseEntity<T> idempotent(String scope, String key, Object body, Supplier<T> create) {
+        if (key == null || key.isBlank()) {
+            return ResponseEntity.ok(create.get());
+        }
+        IdempotencyStore.Outcome<T> outcome = idempotencyStore.execute(scope, caller(), key, body, create);
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+                .body(outcome.response());
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return "";
+        }
+        return authentication.getName();
+    }
+
+    // Strong ETag built from the entity's @Version column
+    private static String etag(long version) {
+        return etag(String.valueOf(version));
+    }
+
+    // Same, from several versions already joined by the repository (entity plus what it nests)
+    private static String etag(String versions) {
+        return "\"" + versions + "\"";
+    }
+
+    // If-None-Match check against a version probe. Unlike WebRequest.checkNotModified it
+    // doesn't put the probe's tag on the response, so a 200 carries the body's own tag
+    private static boolean clientHas(WebRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // Weak comparison, as for GET
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,108 @@
+package com.hms.logging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Structured access log, written off the request threads
+// Request threads drop entries into a fixed-size lock-free ring buffer (many producers,
+// one consumer); a single background thread drains it and writes one JSON line per entry
+// to the "hms.access" logger. When the buffer is full the entry is dropped and counted
+// rather than making a request wait for the log
+@Component
+public class AccessLog {
+
+    private static final Logger log = LoggerFactory.getLogger("hms.access");
+    private static final Logger internal = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    // One line of the access log
+    public record Entry(Instant time, String method, String route, String path, int status,
+                        long durationMicros, int queries) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    // Next sequence a producer will claim, and next sequence the writer will read
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLog(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     @Value("${hms.access-log.buffer-size:8192}") int bufferSize) {
+        this.objectMapper = objectMapper;
+        // Round up to a power of two so a slot is sequence & mask
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.dropped = Counter.builder("hms.access_log.dropped")
+                .description("Access log entries dropped because the buffer was full")
+                .register(meterRegistry);
+        this.writer = new Thread(this::drain, "access-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Never blocks - returns false when the entry was dropped
+    public boolean offer(Entry entry) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) sequence & mask, entry);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(5_000);
+    }
+
+    private void drain() {
+        while (true) {
+            long sequence = head.get();
+            int slot = (int) sequence & mask;
+            Entry entry = slots.get(slot);
+            if (entry == null) {
+                // Either empty, or a producer has claimed the slot and not filled it yet
+                if (!running && sequence == tail.get()) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            slots.set(slot, null);
+            head.lazySet(sequence + 1);
+            write(entry);
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            log.info(objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException | RuntimeException e) {
+            internal.warn("Could not write access log entry: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.hms.logging;
+
+import com.hms.config.QueryCounter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Times every request and hands a sampled subset to the AccessLog
+// Server errors and slow requests are always logged, everything else at the sample rate
+// Outermost filter, so the duration covers the whole filter chain
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLog accessLog;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowRequestNanos;
+
+    public AccessLogFilter(AccessLog accessLog,
+                           @Value("${hms.access-log.enabled:true}") boolean enabled,
+                           @Value("${hms.access-log.sample-rate:0.05}") double sampleRate,
+                           @Value("${hms.access-log.slow-request-ms:500}") long slowRequestMs) {
+        this.accessLog = accessLog;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowRequestNanos = slowRequestMs * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = response.getStatus();
+            // Decide before building anything, so unsampled requests cost next to nothing
+            if (status >= 500 || elapsed >= slowRequestNanos || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                accessLog.offer(new AccessLog.Entry(Instant.now(), request.getMethod(),
+                        route != null ? route.toString() : null, request.getRequestURI(), status,
+                        elapsed / 1_000, QueryCounter.current()));
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hms.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Logback filter that lets through a random fraction of events
+// Used on the slow-query channel in logback-spring.xml so a struggling database
+// doesn't also flood the log
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    private double rate = 1.0;
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
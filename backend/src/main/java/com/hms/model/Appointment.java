@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class Appointment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,12 +34,18 @@ public class Appointment {
     @Column(name = "appointment_date_time", nullable = false)
     private LocalDateTime appointmentDateTime;
     
+    // One-byte ordinal column - see AppointmentStatus
+    @Enumerated(EnumType.ORDINAL)
     @Column(nullable = false)
-    private String status; // SCHEDULED, COMPLETED, CANCELLED
+    private AppointmentStatus status;
     
     @Column(name = "reason_for_visit")
     private String reasonForVisit;
     
     @Column(columnDefinition = "TEXT")
     private String notes;
+
+    // Bumped by Hibernate on every update - also used as the ETag for GET by id
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -4,7 +4,8 @@ import java.time.LocalDateTime;
 
 public class AppointmentDTO {
     private Long id;
-    private PatientDTO patient;
+    // Only the summary - the medical history stays behind GET /api/patients/{id}
+    private PatientSummary patient;
     private DoctorDTO doctor;
     private LocalDateTime appointmentDateTime;
     private String status;
@@ -20,11 +21,11 @@ public class AppointmentDTO {
         this.id = id;
     }
 
-    public PatientDTO getPatient() {
+    public PatientSummary getPatient() {
         return patient;
     }
 
-    public void setPatient(PatientDTO patient) {
+    public void setPatient(PatientSummary patient) {
         this.patient = patient;
     }
 
@@ -0,0 +1,22 @@
+package com.hms.model;
+
+import java.util.Locale;
+
+// Stored by ordinal in a TINYINT column (see V3 migration) - only ever append new values
+public enum AppointmentStatus {
+    SCHEDULED,
+    COMPLETED,
+    CANCELLED;
+
+    // Lenient parse for API input - null means the default, unknown values are rejected
+    public static AppointmentStatus parse(String value) {
+        if (value == null || value.isBlank()) {
+            return SCHEDULED;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown appointment status: " + value);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.hms.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// List view of an appointment - built directly by a JPQL constructor query so
+// the patient's medicalHistory column is never selected
+public record AppointmentSummary(Long id,
+                                 PatientSummary patient,
+                                 DoctorDTO doctor,
+                                 LocalDateTime appointmentDateTime,
+                                 AppointmentStatus status,
+                                 String reasonForVisit,
+                                 String notes) {
+
+    // JPQL can't nest constructor expressions, so the queries pass flat columns here
+    public AppointmentSummary(Long id, LocalDateTime appointmentDateTime, AppointmentStatus status,
+                              String reasonForVisit, String notes,
+                              Long patientId, String patientName, String patientEmail,
+                              String patientPhone, LocalDate patientDateOfBirth,
+                              Long doctorId, String doctorName, String doctorSpecialty,
+                              String doctorLicenseNumber, Integer doctorYearsOfExperience) {
+        this(id,
+             new PatientSummary(patientId, patientName, patientEmail, patientPhone, patientDateOfBirth),
+             doctor(doctorId, doctorName, doctorSpecialty, doctorLicenseNumber, doctorYearsOfExperience),
+             appointmentDateTime, status, reasonForVisit, notes);
+    }
+
+    private static DoctorDTO doctor(Long id, String name, String specialty,
+                                    String licenseNumber, Integer yearsOfExperience) {
+        DoctorDTO doctor = new DoctorDTO();
+        doctor.setId(id);
+        doctor.setName(name);
+        doctor.setSpecialty(specialty);
+        doctor.setLicenseNumber(licenseNumber);
+        doctor.setYearsOfExperience(yearsOfExperience);
+        return doctor;
+    }
+}
@@ -0,0 +1,5 @@
+package com.hms.model;
+
+// Partial update from a consultation room - null fields are left as they are
+public record AppointmentUpdate(String status, String notes) {
+}
@@ -0,0 +1,5 @@
+package com.hms.model;
+
+// What an appointment looks like once a write-behind update has been committed
+public record AppointmentUpdateResult(Long id, String status, String notes, Long version) {
+}
@@ -0,0 +1,11 @@
+package com.hms.model;
+
+import java.time.LocalDateTime;
+
+// A free slot in a doctor's calendar, as returned by the availability search
+public record AvailableSlot(Long doctorId,
+                            String doctorName,
+                            String specialty,
+                            LocalDateTime start,
+                            LocalDateTime end) {
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class Bill {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_seq")
+    @SequenceGenerator(name = "bill_seq", sequenceName = "bills_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,8 +31,10 @@ public class Bill {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
     
+    // One-byte ordinal column - see BillStatus
+    @Enumerated(EnumType.ORDINAL)
     @Column(nullable = false)
-    private String status; // PENDING, PAID, OVERDUE, CANCELLED
+    private BillStatus status;
     
     @Column(name = "bill_date", nullable = false)
     private LocalDateTime billDate;
@@ -44,4 +47,8 @@ public class Bill {
     
     @Column(name = "payment_date")
     private LocalDateTime paymentDate;
+
+    // Bumped by Hibernate on every update - also used as the ETag for GET by id
+    @Version
+    private Long version;
 }
\ No newline at end of file
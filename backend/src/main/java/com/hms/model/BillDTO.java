@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 
 public class BillDTO {
     private Long id;
-    private PatientDTO patient;
+    // Only the summary - the medical history stays behind GET /api/patients/{id}
+    private PatientSummary patient;
     private BigDecimal amount;
     private String status;
     private LocalDateTime billDate;
@@ -22,11 +23,11 @@ public class BillDTO {
         this.id = id;
     }
 
-    public PatientDTO getPatient() {
+    public PatientSummary getPatient() {
         return patient;
     }
 
-    public void setPatient(PatientDTO patient) {
+    public void setPatient(PatientSummary patient) {
         this.patient = patient;
     }
 
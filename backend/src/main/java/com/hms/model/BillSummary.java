@@ -0,0 +1,27 @@
+package com.hms.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// List view of a bill - built directly by a JPQL constructor query so
+// the patient's medicalHistory column is never selected
+public record BillSummary(Long id,
+                          PatientSummary patient,
+                          BigDecimal amount,
+                          BillStatus status,
+                          LocalDateTime billDate,
+                          LocalDateTime dueDate,
+                          String description,
+                          LocalDateTime paymentDate) {
+
+    // JPQL can't nest constructor expressions, so the queries pass flat columns here
+    public BillSummary(Long id, BigDecimal amount, BillStatus status, LocalDateTime billDate,
+                       LocalDateTime dueDate, String description, LocalDateTime paymentDate,
+                       Long patientId, String patientName, String patientEmail,
+                       String patientPhone, LocalDate patientDateOfBirth) {
+        this(id,
+             new PatientSummary(patientId, patientName, patientEmail, patientPhone, patientDateOfBirth),
+             amount, status, billDate, dueDate, description, paymentDate);
+    }
+}
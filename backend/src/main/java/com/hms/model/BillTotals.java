@@ -0,0 +1,7 @@
+package com.hms.model;
+
+import java.math.BigDecimal;
+
+// Bill count and amount for one patient and status - a row of the grouped startup query
+public record BillTotals(Long patientId, BillStatus status, Long count, BigDecimal amount) {
+}
@@ -0,0 +1,12 @@
+package com.hms.model;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Running bill totals for one patient, or the whole hospital when patientId is null
+// outstanding is PENDING + OVERDUE; counts and amounts are keyed by bill status
+public record BillingBalance(Long patientId,
+                             BigDecimal outstanding,
+                             Map<String, Long> counts,
+                             Map<String, BigDecimal> amounts) {
+}
@@ -0,0 +1,7 @@
+package com.hms.model;
+
+import java.time.LocalDateTime;
+
+// A doctor's booked start time - the minimum needed for conflict and availability checks
+public record BookedSlot(Long doctorId, LocalDateTime start) {
+}
@@ -0,0 +1,50 @@
+package com.hms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of a bulk appointment booking - one entry per submitted item, in order
+public class BulkBookingResult {
+    private int created;
+    private int rejected;
+    private List<Item> items = new ArrayList<>();
+
+    // index is the position in the submitted array (0-based); id is set when created
+    public record Item(int index, Long id, String status, String message) {
+    }
+
+    public void addCreated(int index, Long id) {
+        items.add(new Item(index, id, "CREATED", null));
+        created++;
+    }
+
+    public void addRejected(int index, String message) {
+        items.add(new Item(index, null, "REJECTED", message));
+        rejected++;
+    }
+
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary returned by the bulk import endpoints
+// Only failed rows are listed so the response stays small for big files
+public class BulkImportResult {
+    private int received;
+    private int imported;
+    private List<RowError> errors = new ArrayList<>();
+
+    // One rejected row - row numbers start at 1 (CSV header not counted)
+    public record RowError(int row, String key, String message) {
+    }
+
+    public void addError(int row, String key, String message) {
+        errors.add(new RowError(row, key, message));
+    }
+
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return errors.size();
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hms.model;
+
+import java.util.List;
+
+// Envelope for keyset-paginated list endpoints
+// Clients pass nextCursor back as ?after= to get the following page
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private int limit;
+    private boolean hasMore;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, Long nextCursor, int limit, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
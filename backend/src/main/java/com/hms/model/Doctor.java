@@ -9,7 +9,8 @@ import java.util.Set;
 public class Doctor {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+    @SequenceGenerator(name = "doctor_seq", sequenceName = "doctors_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -23,6 +24,10 @@ public class Doctor {
     
     @Column(name = "years_of_experience")
     private Integer yearsOfExperience;
+
+    // Bumped by Hibernate on every update - also used as the ETag for GET by id
+    @Version
+    private Long version;
     
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Appointment> appointments = new HashSet<>();
@@ -68,6 +73,14 @@ public class Doctor {
         this.yearsOfExperience = yearsOfExperience;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<Appointment> getAppointments() {
         return appointments;
     }
@@ -1,5 +1,6 @@
 package com.hms.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
@@ -24,6 +25,10 @@ public class DoctorDTO {
     @Max(value = 70, message = "Years of experience cannot exceed 70")
     private Integer yearsOfExperience;
 
+    // Row version the DTO was built from - the GET ETag is taken from it, not sent as a field
+    @JsonIgnore
+    private Long version;
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -64,4 +69,12 @@ public class DoctorDTO {
     public void setYearsOfExperience(Integer yearsOfExperience) {
         this.yearsOfExperience = yearsOfExperience;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
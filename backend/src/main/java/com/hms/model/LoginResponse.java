@@ -5,6 +5,9 @@ public class LoginResponse {
     private String username;
     private String message;
     private boolean authenticated;
+    // Bearer token for the Authorization header, and how many seconds it is valid for
+    private String token;
+    private long expiresIn;
 
     // Getters and Setters
     public String getUsername() {
@@ -30,4 +33,20 @@ public class LoginResponse {
     public void setAuthenticated(boolean authenticated) {
         this.authenticated = authenticated;
     }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
 }
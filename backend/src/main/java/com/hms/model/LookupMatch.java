@@ -0,0 +1,6 @@
+package com.hms.model;
+
+// One typeahead hit - type is PATIENT or DOCTOR, detail is the phone (patients) or specialty (doctors)
+// matchedOn says which field the prefix matched: name, phone or licenseNumber
+public record LookupMatch(String type, Long id, String name, String detail, String matchedOn) {
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -21,7 +22,10 @@ import java.util.Set;
 public class Patient {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
+    // (IDENTITY needs a round-trip per row to learn the generated id)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patients_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -38,12 +42,23 @@ public class Patient {
     
     @Column(name = "medical_history", columnDefinition = "TEXT")
     private String medicalHistory;
+
+    // Bumped by Hibernate on every update - also used as the ETag for GET by id
+    @Version
+    private Long version;
     
+    // Left out of equals/hashCode/toString - Bill and Appointment hash their patient, so hashing
+    // an element while Hibernate loads one of these sets re-entered the set, and the delete
+    // cascade found it empty (the patient's DELETE then hit the foreign keys)
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Appointment> appointments = new HashSet<>();
     
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Bill> bills = new HashSet<>();
 }
\ No newline at end of file
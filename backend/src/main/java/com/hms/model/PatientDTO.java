@@ -1,5 +1,6 @@
 package com.hms.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -35,4 +36,8 @@ public class PatientDTO {
     
     @Size(max = 1000, message = "Medical history must not exceed 1000 characters")
     private String medicalHistory;
+
+    // Row version the DTO was built from - the GET ETag is taken from it, not sent as a field
+    @JsonIgnore
+    private Long version;
 }
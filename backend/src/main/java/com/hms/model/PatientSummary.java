@@ -0,0 +1,9 @@
+package com.hms.model;
+
+import java.time.LocalDate;
+
+// Lightweight patient view for lists and nested usage
+// Leaves out medicalHistory (a TEXT column) so it is never read, copied or serialized there
+// Full details are still available from GET /api/patients/{id}
+public record PatientSummary(Long id, String name, String email, String phone, LocalDate dateOfBirth) {
+}
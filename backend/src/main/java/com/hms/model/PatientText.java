@@ -0,0 +1,10 @@
+package com.hms.model;
+
+// The searchable text of a patient - what the full-text index is built from
+public record PatientText(Long id, String name, String email, String phone, String medicalHistory) {
+
+    public static PatientText of(Patient patient) {
+        return new PatientText(patient.getId(), patient.getName(), patient.getEmail(),
+                patient.getPhone(), patient.getMedicalHistory());
+    }
+}
@@ -0,0 +1,7 @@
+package com.hms.model;
+
+import java.time.LocalDateTime;
+
+// Outcome of one overdue-bill sweep
+public record SweepReport(LocalDateTime startedAt, int updated, int chunks, long durationMillis) {
+}
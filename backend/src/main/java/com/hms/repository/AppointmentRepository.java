@@ -1,17 +1,100 @@
 package com.hms.repository;
 
 import com.hms.model.Appointment;
+import com.hms.model.AppointmentStatus;
+import com.hms.model.AppointmentSummary;
+import com.hms.model.BookedSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     
+    // Every list path fetch-joins patient and doctor so converting to DTOs
+    // doesn't fire two extra selects per appointment (the N+1 problem)
+    @EntityGraph(attributePaths = {"patient", "doctor"})
     List<Appointment> findByPatientId(Long patientId);
     
+    @EntityGraph(attributePaths = {"patient", "doctor"})
     List<Appointment> findByDoctorId(Long doctorId);
     
-    List<Appointment> findByStatus(String status);
+    @EntityGraph(attributePaths = {"patient", "doctor"})
+    List<Appointment> findByStatus(AppointmentStatus status);
+    
+    @EntityGraph(attributePaths = {"patient", "doctor"})
+    Optional<Appointment> findWithPatientAndDoctorById(Long id);
+    
+    // List views use constructor projections that skip the patient's medicalHistory column
+    @Query("select new com.hms.model.AppointmentSummary(a.id, a.appointmentDateTime, a.status, a.reasonForVisit, a.notes, " +
+           "p.id, p.name, p.email, p.phone, p.dateOfBirth, " +
+           "d.id, d.name, d.specialty, d.licenseNumber, d.yearsOfExperience) " +
+           "from Appointment a join a.patient p join a.doctor d order by a.id")
+    List<AppointmentSummary> findAllSummaries();
+    
+    // Keyset pagination - seeks past the last id instead of using OFFSET
+    @Query("select new com.hms.model.AppointmentSummary(a.id, a.appointmentDateTime, a.status, a.reasonForVisit, a.notes, " +
+           "p.id, p.name, p.email, p.phone, p.dateOfBirth, " +
+           "d.id, d.name, d.specialty, d.licenseNumber, d.yearsOfExperience) " +
+           "from Appointment a join a.patient p join a.doctor d where a.id > :after order by a.id")
+    Slice<AppointmentSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+    
+    // Used by the NDJSON export - rows are pulled from the cursor as the response is written
+    // Must be consumed inside a transaction and closed afterwards
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.hms.model.AppointmentSummary(a.id, a.appointmentDateTime, a.status, a.reasonForVisit, a.notes, " +
+           "p.id, p.name, p.email, p.phone, p.dateOfBirth, " +
+           "d.id, d.name, d.specialty, d.licenseNumber, d.yearsOfExperience) " +
+           "from Appointment a join a.patient p join a.doctor d order by a.id")
+    Stream<AppointmentSummary> streamAllForExport();
+    
+    // Double-booking check - any non-cancelled appointment for the doctor starting inside (from, to)
+    // Explicitly read-write so it is always answered by the primary - a lagging replica
+    // could miss the booking it is meant to catch
+    @Transactional
+    @Query("select count(a) > 0 from Appointment a where a.doctor.id = :doctorId and a.status <> com.hms.model.AppointmentStatus.CANCELLED " +
+           "and a.appointmentDateTime > :from and a.appointmentDateTime < :to")
+    boolean existsOverlapping(@Param("doctorId") Long doctorId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+    
+    // Booked start times for a set of doctors in a window - used to validate bulk bookings in memory
+    // Read-write for the same reason as existsOverlapping
+    @Transactional
+    @Query("select new com.hms.model.BookedSlot(a.doctor.id, a.appointmentDateTime) from Appointment a " +
+           "where a.doctor.id in :doctorIds and a.status <> com.hms.model.AppointmentStatus.CANCELLED " +
+           "and a.appointmentDateTime > :from and a.appointmentDateTime < :to")
+    List<BookedSlot> findBookedSlots(@Param("doctorIds") Collection<Long> doctorIds,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+    
+    // Every upcoming booking - loaded once at startup to build the availability index
+    @Query("select new com.hms.model.BookedSlot(a.doctor.id, a.appointmentDateTime) from Appointment a " +
+           "where a.status <> com.hms.model.AppointmentStatus.CANCELLED and a.appointmentDateTime > :from")
+    List<BookedSlot> findBookedSlotsFrom(@Param("from") LocalDateTime from);
+    
+    // One patient's bookings - the days they hold have to be refreshed when the patient is deleted
+    @Query("select new com.hms.model.BookedSlot(a.doctor.id, a.appointmentDateTime) from Appointment a " +
+           "where a.patient.id = :patientId and a.status <> com.hms.model.AppointmentStatus.CANCELLED")
+    List<BookedSlot> findBookedSlotsByPatientId(@Param("patientId") Long patientId);
+    
+    // Narrow version-only lookup used to answer conditional GETs without loading the row
+    // The response nests the patient and doctor, so their versions are part of it too
+    @Query("select concat(str(coalesce(a.version, 0)), '.', str(coalesce(p.version, 0)), '.', str(coalesce(d.version, 0))) " +
+           "from Appointment a join a.patient p join a.doctor d where a.id = :id")
+    Optional<String> findVersionById(@Param("id") Long id);
 }
@@ -1,15 +1,89 @@
 package com.hms.repository;
 
 import com.hms.model.Bill;
+import com.hms.model.BillStatus;
+import com.hms.model.BillSummary;
+import com.hms.model.BillTotals;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
     
+    // List paths fetch-join the patient so DTO conversion stays a single select
+    @EntityGraph(attributePaths = "patient")
     List<Bill> findByPatientId(Long patientId);
     
-    List<Bill> findByStatus(String status);
+    @EntityGraph(attributePaths = "patient")
+    List<Bill> findByStatus(BillStatus status);
+    
+    @EntityGraph(attributePaths = "patient")
+    Optional<Bill> findWithPatientById(Long id);
+    
+    // List views use constructor projections that skip the patient's medicalHistory column
+    @Query("select new com.hms.model.BillSummary(b.id, b.amount, b.status, b.billDate, b.dueDate, b.description, b.paymentDate, " +
+           "p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Bill b join b.patient p order by b.id")
+    List<BillSummary> findAllSummaries();
+    
+    // Keyset pagination - seeks past the last id instead of using OFFSET
+    @Query("select new com.hms.model.BillSummary(b.id, b.amount, b.status, b.billDate, b.dueDate, b.description, b.paymentDate, " +
+           "p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Bill b join b.patient p where b.id > :after order by b.id")
+    Slice<BillSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+    
+    // Used by the NDJSON export - rows are pulled from the cursor as the response is written
+    // Must be consumed inside a transaction and closed afterwards
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.hms.model.BillSummary(b.id, b.amount, b.status, b.billDate, b.dueDate, b.description, b.paymentDate, " +
+           "p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Bill b join b.patient p order by b.id")
+    Stream<BillSummary> streamAllForExport();
+    
+    // Grouped totals used to seed the in-memory billing aggregates at startup
+    @Query("select new com.hms.model.BillTotals(b.patient.id, b.status, count(b), sum(b.amount)) " +
+           "from Bill b group by b.patient.id, b.status")
+    List<BillTotals> sumByPatientAndStatus();
+    
+    // Overdue sweep, step 1 - row-locks one chunk of due bills (served by the status/due_date index)
+    // No ORDER BY: under FOR UPDATE H2 won't take the order from the index, and sorting made it
+    // read every due bill before cutting the chunk - the index scan stops at the chunk size
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Bill b where b.status = com.hms.model.BillStatus.PENDING and b.dueDate < :now")
+    List<Bill> lockDueBills(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Single-bill writes - row-locks the bill so its read and its change can't interleave with a sweep chunk
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Bill b where b.id = :id")
+    Optional<Bill> lockById(@Param("id") Long id);
+    
+    // Overdue sweep, step 2 - one set-based UPDATE for the locked chunk
+    // Bumps the version so cached ETags for these bills stop matching
+    @Modifying(clearAutomatically = true)
+    @Query("update Bill b set b.status = com.hms.model.BillStatus.OVERDUE, b.version = b.version + 1 " +
+           "where b.id in :ids and b.status = com.hms.model.BillStatus.PENDING")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+    
+    // Narrow version-only lookup used to answer conditional GETs without loading the row
+    // Includes the nested patient's version, like the appointment one
+    @Query("select concat(str(coalesce(b.version, 0)), '.', str(coalesce(p.version, 0))) " +
+           "from Bill b join b.patient p where b.id = :id")
+    Optional<String> findVersionById(@Param("id") Long id);
 }
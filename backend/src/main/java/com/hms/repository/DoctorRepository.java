@@ -1,9 +1,16 @@
 package com.hms.repository;
 
 import com.hms.model.Doctor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +22,22 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     boolean existsByLicenseNumber(String licenseNumber);
     
     List<Doctor> findBySpecialty(String specialty);
+    
+    // Keyset pagination - seeks past the last id instead of using OFFSET
+    Slice<Doctor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Row locks held by the booking transaction - bookings for the same doctor queue here
+    // no matter which app instance they arrive on. Batches lock in id order so two can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Doctor d where d.id = :id")
+    Optional<Doctor> lockForBooking(@Param("id") Long id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Doctor d where d.id in :ids order by d.id")
+    List<Doctor> lockAllForBooking(@Param("ids") Collection<Long> ids);
+    
+    // Narrow version-only lookup used to answer conditional GETs without loading the row
+    // A row that predates the version column reads as 0 rather than unboxing null
+    @Query("select coalesce(d.version, 0L) from Doctor d where d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
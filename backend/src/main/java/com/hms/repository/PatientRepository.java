@@ -1,13 +1,63 @@
 package com.hms.repository;
 
 import com.hms.model.Patient;
+import com.hms.model.PatientSummary;
+import com.hms.model.PatientText;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Set-based duplicate check for bulk imports - one query per chunk
+    @Query("select p.email from Patient p where p.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // List views use a record projection so medicalHistory (TEXT) is never read
+    @Query("select new com.hms.model.PatientSummary(p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Patient p order by p.id")
+    List<PatientSummary> findAllSummaries();
+
+    // Keyset pagination - seeks past the last id instead of using OFFSET
+    @Query("select new com.hms.model.PatientSummary(p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Patient p where p.id > :after order by p.id")
+    Slice<PatientSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+    
+    // Same projection as a cursor - feeds the typeahead index at startup
+    // Must be consumed inside a transaction and closed afterwards
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.hms.model.PatientSummary(p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Patient p")
+    Stream<PatientSummary> streamAllSummaries();
+
+    // Summaries for a set of ids - the caller restores whatever order it needs
+    @Query("select new com.hms.model.PatientSummary(p.id, p.name, p.email, p.phone, p.dateOfBirth) " +
+           "from Patient p where p.id in :ids")
+    List<PatientSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Streams the searchable columns of every patient to build the full-text index
+    // Must be consumed inside a transaction and closed afterwards
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.hms.model.PatientText(p.id, p.name, p.email, p.phone, p.medicalHistory) from Patient p")
+    Stream<PatientText> streamAllText();
+    
+    // Narrow version-only lookup used to answer conditional GETs without loading the row
+    // A row that predates the version column reads as 0 rather than unboxing null
+    @Query("select coalesce(p.version, 0L) from Patient p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,13 @@
+package com.hms.repository;
+
+import com.hms.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+    // Roles are EAGER, so they come back in the same query
+    Optional<User> findByUsername(String username);
+}
@@ -4,38 +4,45 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+// Runs inside the Spring Security chain (see SecurityConfig)
+// A valid "Authorization: Bearer <jwt>" header makes the request authenticated as the
+// token's user; no header or a bad token leaves it anonymous, and SecurityConfig decides
+// whether anonymous requests are allowed. Requests are logged by the access log instead
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    
-    // I kept this simple for the college demo - security is disabled anyway
-    // In a real hospital app, this would be super important for patient privacy!
-    
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
     @Override
-    protected void doFilterInternal(@NonNull HttpServletRequest request, 
-                                  @NonNull HttpServletResponse response, 
-                                  @NonNull FilterChain filterChain) throws ServletException, IOException {
-        
-        // Since we disabled security for the demo, this just logs the request
-        // Took me forever to figure out I could just disable security entirely!
-        log.info("JWT Filter processing request: {}", request.getRequestURI());
-        
-        // If this was a real hospital system, I would:
-        // 1. Get the JWT token from the Authorization header
-        // 2. Check if the token is valid (not expired, correct signature)
-        // 3. Load the doctor/patient user info from the token
-        // 4. Make sure they can only access their own data!
-        
-        // For now, just let everything through - much easier for college demo
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            // Cached per token, so this is usually a hash and a map lookup
+            Authentication authentication = jwtService.authenticate(header.substring(BEARER.length()).trim());
+            if (authentication != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
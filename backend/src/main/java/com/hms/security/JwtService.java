@@ -0,0 +1,168 @@
+package com.hms.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hms.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+// Issues and verifies the stateless JWTs used by the API
+// A token carries the username and role names, so verifying it needs no database lookup.
+// Verified tokens are cached by SHA-256 digest until they expire, together with the
+// ready-made Authentication - a client re-sending the same token costs one hash and a
+// map lookup instead of a signature check, JSON parse and authority list per request
+@Component
+public class JwtService {
+
+    private static final String ROLES_CLAIM = "roles";
+    // HS256 needs a key at least as long as its 256-bit hash
+    private static final int MIN_KEY_BYTES = 32;
+
+    // What a verified token resolves to - shared by every request that presents it
+    record VerifiedToken(Authentication authentication, Instant expiresAt) {
+    }
+
+    private final Key key;
+    private final JwtParser parser;
+    private final Duration lifetime;
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtService(@Value("${hms.security.jwt.secret}") String secret,
+                      @Value("${hms.security.jwt.expiration-minutes:60}") long expirationMinutes,
+                      @Value("${hms.security.jwt.cache-size:10000}") long cacheSize) {
+        this.key = Keys.hmacShaKeyFor(decodeSecret(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.lifetime = Duration.ofMinutes(expirationMinutes);
+        // Each entry lives exactly as long as its token is valid
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public String issue(User user) {
+        Instant now = Instant.now();
+        List<String> roles = new ArrayList<>(user.getRoles().size());
+        user.getRoles().forEach(role -> roles.add(role.getName()));
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(ROLES_CLAIM, roles)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(lifetime)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Duration lifetime() {
+        return lifetime;
+    }
+
+    // The authenticated principal for a token, or null if it is invalid or expired
+    // Only valid tokens are cached, so garbage tokens can't push real ones out
+    public Authentication authenticate(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verified.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached.authentication();
+        }
+        VerifiedToken fresh = verify(token);
+        if (fresh == null) {
+            return null;
+        }
+        verified.put(digest, fresh);
+        return fresh.authentication();
+    }
+
+    // Full signature check and parse - the uncached path
+    VerifiedToken verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            // Tokens without an expiry are never issued here, so they aren't accepted either
+            if (claims.getExpiration() == null) {
+                return null;
+            }
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            Object roles = claims.get(ROLES_CLAIM);
+            if (roles instanceof List<?> names) {
+                for (Object name : names) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + name));
+                }
+            }
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                    claims.getSubject(), null, Collections.unmodifiableList(authorities));
+            return new VerifiedToken(authentication, claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Whoever knows the key can mint tokens for any role, so refuse to start without a real one
+    private static byte[] decodeSecret(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("hms.security.jwt.secret is not set - export HMS_JWT_SECRET "
+                    + "with a base64 key of at least " + MIN_KEY_BYTES + " bytes");
+        }
+        byte[] bytes;
+        try {
+            bytes = Decoders.BASE64.decode(secret.trim());
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("hms.security.jwt.secret is not valid base64", e);
+        }
+        if (bytes.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("hms.security.jwt.secret is " + bytes.length
+                    + " bytes, at least " + MIN_KEY_BYTES + " are required");
+        }
+        return bytes;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
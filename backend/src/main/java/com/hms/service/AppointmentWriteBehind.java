@@ -0,0 +1,326 @@
+package com.hms.service;
+
+import com.hms.model.Appointment;
+import com.hms.model.AppointmentDTO;
+import com.hms.model.AppointmentStatus;
+import com.hms.model.AppointmentUpdate;
+import com.hms.model.AppointmentUpdateResult;
+import com.hms.repository.AppointmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind group commit for appointment status and notes
+// Updates are queued in memory and coalesced per appointment (the latest value of each
+// field wins); a background thread writes them out in one transaction per batch once
+// batch-size appointments are waiting or the oldest update is max-delay-ms old.
+// Callers get a future that completes only after their batch has committed, so an
+// acknowledged update is durable - many small updates just share one commit
+// If the batch commit fails, it is retried one appointment per transaction so only the
+// update that actually conflicts is rejected
+// Reads see queued updates through overlay(), including a batch that is mid-commit
+@Component
+public class AppointmentWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentWriteBehind.class);
+
+    // Everything queued for one appointment, plus who is waiting for it to commit
+    private static final class Pending {
+        AppointmentStatus status;
+        String notes;
+        final List<CompletableFuture<AppointmentUpdateResult>> waiters = new ArrayList<>(1);
+    }
+
+    // What one commit attempt produced - thrown away if its transaction rolls back
+    private static final class Committed {
+        final Map<Long, AppointmentUpdateResult> results = new HashMap<>();
+        final Map<Long, RuntimeException> rejected = new HashMap<>();
+        final List<Appointment> cancelled = new ArrayList<>();
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DoctorScheduleLocks doctorScheduleLocks;
+    private final AvailabilityIndex availabilityIndex;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final int capacity;
+
+    // Guards pending and oldestNanos; the flusher waits on batchReady
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchReady = lock.newCondition();
+    private Map<Long, Pending> pending = new HashMap<>();
+    private long oldestNanos;
+    // The batch being committed right now - still visible to reads until it lands
+    private volatile Map<Long, Pending> inFlight = Collections.emptyMap();
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    public AppointmentWriteBehind(AppointmentRepository appointmentRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  DoctorScheduleLocks doctorScheduleLocks,
+                                  AvailabilityIndex availabilityIndex,
+                                  @Value("${hms.appointments.write-behind.batch-size:200}") int batchSize,
+                                  @Value("${hms.appointments.write-behind.max-delay-ms:20}") long maxDelayMs,
+                                  @Value("${hms.appointments.write-behind.capacity:10000}") int capacity) {
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.doctorScheduleLocks = doctorScheduleLocks;
+        this.availabilityIndex = availabilityIndex;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.capacity = capacity;
+        this.flusher = new Thread(this::run, "appointment-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // Queues the update; the future completes once it is committed, or fails with the reason
+    // it couldn't be (appointment gone, version conflict, ...)
+    public CompletableFuture<AppointmentUpdateResult> submit(Long appointmentId, AppointmentUpdate update) {
+        // Bad input is rejected here rather than failing a whole batch later
+        AppointmentStatus status = update.status() != null ? AppointmentStatus.parse(update.status()) : null;
+        CompletableFuture<AppointmentUpdateResult> done = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (!running) {
+                throw new UpdateQueueFullException("Appointment updates are shutting down");
+            }
+            Pending entry = pending.get(appointmentId);
+            if (entry == null) {
+                if (pending.size() >= capacity) {
+                    throw new UpdateQueueFullException("Too many appointment updates queued, please retry shortly");
+                }
+                if (pending.isEmpty()) {
+                    oldestNanos = System.nanoTime();
+                }
+                entry = new Pending();
+                pending.put(appointmentId, entry);
+            }
+            if (status != null) {
+                entry.status = status;
+            }
+            if (update.notes() != null) {
+                entry.notes = update.notes();
+            }
+            entry.waiters.add(done);
+            // Wake the flusher to start the delay clock, or to flush a full batch now
+            if (pending.size() == 1 || pending.size() >= batchSize) {
+                batchReady.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return done;
+    }
+
+    // Applies queued changes to a DTO read from the database, so readers see them right away
+    public AppointmentDTO overlay(AppointmentDTO dto) {
+        Pending queued;
+        lock.lock();
+        try {
+            queued = pending.get(dto.getId());
+            if (queued != null) {
+                // Copy under the lock - the entry can still change until it is swapped out
+                Pending copy = new Pending();
+                copy.status = queued.status;
+                copy.notes = queued.notes;
+                queued = copy;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Older values from the committing batch first, then the newer queued ones on top
+        apply(dto, inFlight.get(dto.getId()));
+        apply(dto, queued);
+        return dto;
+    }
+
+    public boolean hasPending(Long appointmentId) {
+        if (inFlight.containsKey(appointmentId)) {
+            return true;
+        }
+        lock.lock();
+        try {
+            return pending.containsKey(appointmentId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stops taking updates and commits whatever is still queued
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            batchReady.signal();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void run() {
+        while (true) {
+            Map<Long, Pending> batch;
+            lock.lock();
+            try {
+                while (running && !batchDue()) {
+                    if (pending.isEmpty()) {
+                        batchReady.await();
+                    } else {
+                        batchReady.awaitNanos(maxDelayNanos - (System.nanoTime() - oldestNanos));
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+                inFlight = batch;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flush(batch);
+            } catch (Throwable e) {
+                // The thread must survive anything a batch throws - later updates depend on it
+                log.error("Appointment update batch of {} failed unexpectedly", batch.size(), e);
+                RuntimeException failure = new IllegalStateException("Appointment update could not be committed", e);
+                batch.values().forEach(update -> update.waiters.forEach(waiter -> waiter.completeExceptionally(failure)));
+            } finally {
+                inFlight = Collections.emptyMap();
+            }
+        }
+    }
+
+    private boolean batchDue() {
+        return !pending.isEmpty()
+                && (pending.size() >= batchSize || System.nanoTime() - oldestNanos >= maxDelayNanos);
+    }
+
+    private void flush(Map<Long, Pending> batch) {
+        Committed committed;
+        try {
+            committed = commit(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.values().forEach(update -> update.waiters.forEach(waiter -> waiter.completeExceptionally(e)));
+                return;
+            }
+            // Nothing was written - find the offending rows by committing each one on its own
+            log.warn("Appointment update batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            committed = commitOneByOne(batch);
+        }
+        freeCancelledSlots(committed.cancelled);
+        for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+            AppointmentUpdateResult result = committed.results.get(entry.getKey());
+            RuntimeException failure = result != null ? null
+                    : committed.rejected.getOrDefault(entry.getKey(), new RuntimeException("Appointment not found"));
+            for (CompletableFuture<AppointmentUpdateResult> waiter : entry.getValue().waiters) {
+                if (failure == null) {
+                    waiter.complete(result);
+                } else {
+                    waiter.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    // One transaction for the given updates: one select for the rows, then batched versioned updates
+    private Committed commit(Map<Long, Pending> updates) {
+        Committed committed = new Committed();
+        transactionTemplate.executeWithoutResult(tx -> {
+            List<Appointment> appointments = appointmentRepository.findAllById(updates.keySet());
+            for (Appointment appointment : appointments) {
+                Pending update = updates.get(appointment.getId());
+                if (update.status != null && update.status != appointment.getStatus()) {
+                    // Reopening a cancelled slot would skip the double-booking check
+                    if (appointment.getStatus() == AppointmentStatus.CANCELLED) {
+                        committed.rejected.put(appointment.getId(), new BookingConflictException(
+                                "Cancelled appointments can't be reopened - book a new one"));
+                        continue;
+                    }
+                    if (update.status == AppointmentStatus.CANCELLED) {
+                        committed.cancelled.add(appointment);
+                    }
+                    appointment.setStatus(update.status);
+                }
+                if (update.notes != null) {
+                    appointment.setNotes(update.notes);
+                }
+            }
+            appointmentRepository.flush();
+            for (Appointment appointment : appointments) {
+                if (!committed.rejected.containsKey(appointment.getId())) {
+                    committed.results.put(appointment.getId(), new AppointmentUpdateResult(appointment.getId(),
+                            appointment.getStatus().name(), appointment.getNotes(), appointment.getVersion()));
+                }
+            }
+        });
+        return committed;
+    }
+
+    private Committed commitOneByOne(Map<Long, Pending> batch) {
+        Committed committed = new Committed();
+        for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+            try {
+                Committed single = commit(Map.of(entry.getKey(), entry.getValue()));
+                committed.results.putAll(single.results);
+                committed.rejected.putAll(single.rejected);
+                committed.cancelled.addAll(single.cancelled);
+            } catch (RuntimeException e) {
+                committed.rejected.put(entry.getKey(), e);
+            }
+        }
+        return committed;
+    }
+
+    // Same as deleteAppointment - the day is rebuilt under the doctor's lock
+    // The cancellations are already committed, so a failed refresh only leaves that day's
+    // availability stale (until the next rebuild) and doesn't fail the update
+    private void freeCancelledSlots(List<Appointment> cancelled) {
+        for (Appointment appointment : cancelled) {
+            Long doctorId = appointment.getDoctor().getId();
+            LocalDate day = appointment.getAppointmentDateTime().toLocalDate();
+            try {
+                doctorScheduleLocks.withLock(doctorId, () -> {
+                    availabilityIndex.refreshDay(doctorId, day);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh availability of doctor {} on {}: {}", doctorId, day, e.getMessage());
+            }
+        }
+    }
+
+    private static void apply(AppointmentDTO dto, Pending update) {
+        if (update == null) {
+            return;
+        }
+        if (update.status != null) {
+            dto.setStatus(update.status.name());
+        }
+        if (update.notes != null) {
+            dto.setNotes(update.notes);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.hms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hms.model.LoginDTO;
+import com.hms.model.LoginResponse;
+import com.hms.model.User;
+import com.hms.repository.UserRepository;
+import com.hms.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Username/password login - checks the stored hash and hands out a JWT
+// Everything after login is stateless: the token alone identifies the user
+//
+// BCrypt is deliberately slow, so the check runs on a small dedicated pool rather than
+// on the request thread: a shift-change burst queues here (up to queue-capacity) while
+// Tomcat keeps serving everything else, and anything beyond that is turned away with a
+// 503 straight away. Users and their roles are cached briefly by username so repeated
+// logins don't query users/user_roles every time
+@Service
+public class AuthService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final ExecutorService hashingPool;
+    private final Cache<String, User> users;
+
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService,
+                       MeterRegistry meterRegistry,
+                       @Value("${hms.security.login.threads:0}") int threads,
+                       @Value("${hms.security.login.queue-capacity:200}") int queueCapacity,
+                       @Value("${hms.security.login.user-cache-ttl-seconds:30}") long userCacheTtlSeconds) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+        // Hashing is pure CPU, so more threads than cores only adds queueing in the scheduler
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "login-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Queue depth, active threads and task timings show up under executor.* tagged name=login
+        this.hashingPool = ExecutorServiceMetrics.monitor(meterRegistry, executor, "login", List.of());
+        this.users = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(userCacheTtlSeconds))
+                .build();
+    }
+
+    // Completes on the hashing pool; throws LoginOverloadedException right away when the queue is full
+    public CompletableFuture<LoginResponse> login(LoginDTO login) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(login), hashingPool);
+        } catch (RejectedExecutionException e) {
+            throw new LoginOverloadedException("Too many logins in progress, please retry shortly");
+        }
+    }
+
+    // Unknown user, wrong password and disabled account all get the same answer
+    private LoginResponse authenticate(LoginDTO login) {
+        User user = cachedUser(login.getUsername());
+        LoginResponse response = new LoginResponse();
+        response.setUsername(login.getUsername());
+        if (user == null || !user.isEnabled() || !passwordEncoder.matches(login.getPassword(), user.getPassword())) {
+            response.setAuthenticated(false);
+            response.setMessage("Invalid username or password");
+            return response;
+        }
+        response.setAuthenticated(true);
+        response.setMessage("Login successful");
+        response.setToken(jwtService.issue(user));
+        response.setExpiresIn(jwtService.lifetime().toSeconds());
+        return response;
+    }
+
+    // Read-through, misses aren't cached - a username that doesn't exist yet may be created any time
+    private User cachedUser(String username) {
+        if (username == null) {
+            return null;
+        }
+        User cached = users.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user != null) {
+            users.put(username, user);
+        }
+        return user;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+}
@@ -0,0 +1,237 @@
+package com.hms.service;
+
+import com.hms.model.AvailableSlot;
+import com.hms.model.BookedSlot;
+import com.hms.model.Doctor;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory availability index - one bitmask per doctor per day, bit i set when
+// slot i (opening time + i * slot length) is taken by a non-cancelled appointment
+// Built once at startup and kept current by HospitalService, so availability
+// searches never touch the database
+@Component
+public class AvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityIndex.class);
+
+    // Doctor details needed to answer a search, plus the booked bitmask per day
+    private record DoctorCalendar(Long id, String name, String specialty, Map<LocalDate, Long> booked) {
+    }
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final LocalTime openingTime;
+    private final Duration slotLength;
+    private final int slotsPerDay;
+    private final long fullDay;
+    // True when the day opens less than one appointment after midnight, so a late
+    // appointment can take the next day's first slots (see book)
+    private final boolean spillsIntoNextDay;
+
+    private final Map<Long, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> doctorsBySpecialty = new ConcurrentHashMap<>();
+
+    public AvailabilityIndex(DoctorRepository doctorRepository,
+                             AppointmentRepository appointmentRepository,
+                             @Value("${hms.availability.opening-time:08:00}") String openingTime,
+                             @Value("${hms.availability.closing-time:18:00}") String closingTime,
+                             @Value("${hms.appointments.duration-minutes:30}") long appointmentMinutes) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.openingTime = LocalTime.parse(openingTime);
+        this.slotLength = Duration.ofMinutes(appointmentMinutes);
+        this.slotsPerDay = (int) (Duration.between(this.openingTime, LocalTime.parse(closingTime)).toMinutes() / appointmentMinutes);
+        if (slotsPerDay < 1 || slotsPerDay > Long.SIZE) {
+            throw new IllegalStateException("Opening hours must hold between 1 and 64 appointment slots, got " + slotsPerDay);
+        }
+        this.fullDay = slotsPerDay == Long.SIZE ? -1L : (1L << slotsPerDay) - 1;
+        this.spillsIntoNextDay = Duration.between(LocalTime.MIDNIGHT, this.openingTime).compareTo(slotLength) < 0;
+    }
+
+    // Runs after DataInitializer, so the sample data is included
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        calendars.clear();
+        doctorsBySpecialty.clear();
+        for (Doctor doctor : doctorRepository.findAll()) {
+            putDoctor(doctor.getId(), doctor.getName(), doctor.getSpecialty());
+        }
+        // Past days can never be offered, so only today onwards is loaded
+        List<BookedSlot> upcoming = appointmentRepository.findBookedSlotsFrom(LocalDate.now().atStartOfDay().minus(slotLength));
+        for (BookedSlot slot : upcoming) {
+            book(slot.doctorId(), slot.start());
+        }
+        log.info("Availability index built for {} doctors from {} upcoming appointments", calendars.size(), upcoming.size());
+    }
+
+    // Doctor changes - called after the corresponding write has been saved
+    public void putDoctor(Long doctorId, String name, String specialty) {
+        DoctorCalendar previous = calendars.get(doctorId);
+        Map<LocalDate, Long> booked = previous != null ? previous.booked() : new ConcurrentHashMap<>();
+        calendars.put(doctorId, new DoctorCalendar(doctorId, name, specialty, booked));
+        if (previous != null && !previous.specialty().equals(specialty)) {
+            specialtyMembers(previous.specialty()).remove(doctorId);
+        }
+        specialtyMembers(specialty).add(doctorId);
+    }
+
+    public void removeDoctor(Long doctorId) {
+        DoctorCalendar removed = calendars.remove(doctorId);
+        if (removed != null) {
+            specialtyMembers(removed.specialty()).remove(doctorId);
+        }
+    }
+
+    // Marks every slot the appointment overlaps as taken
+    public void book(Long doctorId, LocalDateTime start) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return;
+        }
+        long mask = slotMask(start.toLocalDate(), start);
+        if (mask != 0) {
+            calendar.booked().merge(start.toLocalDate(), mask, (a, b) -> a | b);
+        }
+        // An appointment just before midnight can spill into the next day's opening slots
+        LocalDate nextDay = start.toLocalDate().plusDays(1);
+        long spill = slotMask(nextDay, start);
+        if (spill != 0) {
+            calendar.booked().merge(nextDay, spill, (a, b) -> a | b);
+        }
+    }
+
+    // Neighbouring appointments can share a slot when they're off the slot grid, so a
+    // cancellation can't just clear bits - the day is rebuilt from the database instead
+    // Callers hold the doctor's schedule lock so a concurrent booking can't be lost
+    // day is the appointment's start date; when it can spill past midnight the next day
+    // is rebuilt too
+    public void refreshDay(Long doctorId, LocalDate day) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return;
+        }
+        rebuildDay(calendar, doctorId, day);
+        if (spillsIntoNextDay) {
+            rebuildDay(calendar, doctorId, day.plusDays(1));
+        }
+    }
+
+    // Every appointment overlapping the day's opening hours, including one that started the evening before
+    private void rebuildDay(DoctorCalendar calendar, Long doctorId, LocalDate day) {
+        LocalDateTime dayStart = day.atTime(openingTime);
+        LocalDateTime dayEnd = dayStart.plus(slotLength.multipliedBy(slotsPerDay));
+        long mask = 0;
+        for (BookedSlot slot : appointmentRepository.findBookedSlots(List.of(doctorId),
+                dayStart.minus(slotLength), dayEnd)) {
+            mask |= slotMask(day, slot.start());
+        }
+        if (mask == 0) {
+            calendar.booked().remove(day);
+        } else {
+            calendar.booked().put(day, mask);
+        }
+    }
+
+    // Free slots for a specialty inside [from, to), earliest first, at most limit of them
+    public List<AvailableSlot> findFree(String specialty, LocalDateTime from, LocalDateTime to, int limit) {
+        Set<Long> doctorIds = doctorsBySpecialty.get(specialty);
+        if (doctorIds == null || doctorIds.isEmpty() || !from.isBefore(to) || limit < 1) {
+            return Collections.emptyList();
+        }
+        List<DoctorCalendar> doctors = new ArrayList<>(doctorIds.size());
+        for (Long doctorId : doctorIds) {
+            DoctorCalendar calendar = calendars.get(doctorId);
+            if (calendar != null) {
+                doctors.add(calendar);
+            }
+        }
+        doctors.sort((a, b) -> Long.compare(a.id(), b.id()));
+
+        List<AvailableSlot> result = new ArrayList<>(limit);
+        long[] free = new long[doctors.size()];
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            long window = windowMask(day, from, to);
+            if (window == 0) {
+                continue;
+            }
+            for (int d = 0; d < doctors.size(); d++) {
+                free[d] = ~doctors.get(d).booked().getOrDefault(day, 0L) & window;
+            }
+            // Walk the day slot by slot so results come out in time order
+            LocalDateTime dayStart = day.atTime(openingTime);
+            for (int slot = 0; slot < slotsPerDay; slot++) {
+                long bit = 1L << slot;
+                for (int d = 0; d < doctors.size(); d++) {
+                    if ((free[d] & bit) != 0) {
+                        DoctorCalendar doctor = doctors.get(d);
+                        LocalDateTime start = dayStart.plus(slotLength.multipliedBy(slot));
+                        result.add(new AvailableSlot(doctor.id(), doctor.name(), doctor.specialty(), start, start.plus(slotLength)));
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Set<Long> specialtyMembers(String specialty) {
+        return doctorsBySpecialty.computeIfAbsent(specialty, s -> ConcurrentHashMap.newKeySet());
+    }
+
+    // Bits for the slots of the given day that an appointment starting at start overlaps
+    private long slotMask(LocalDate day, LocalDateTime start) {
+        LocalDateTime dayStart = day.atTime(openingTime);
+        long slotMinutes = slotLength.toMinutes();
+        long offset = Duration.between(dayStart, start).toMinutes();
+        // Appointment covers [offset, offset + slotMinutes) in minutes from opening
+        long first = Math.floorDiv(offset, slotMinutes);
+        long last = Math.floorDiv(offset + slotMinutes - 1, slotMinutes);
+        first = Math.max(first, 0);
+        last = Math.min(last, slotsPerDay - 1);
+        if (first > last) {
+            return 0;
+        }
+        return rangeMask((int) first, (int) last);
+    }
+
+    // Bits for the slots of the given day that lie entirely inside [from, to)
+    private long windowMask(LocalDate day, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime dayStart = day.atTime(openingTime);
+        long slotMinutes = slotLength.toMinutes();
+        long first = Math.max(0, ceilDiv(Duration.between(dayStart, from).toMinutes(), slotMinutes));
+        long last = Math.min(slotsPerDay - 1, Math.floorDiv(Duration.between(dayStart, to).toMinutes(), slotMinutes) - 1);
+        if (first > last) {
+            return 0;
+        }
+        return rangeMask((int) first, (int) last) & fullDay;
+    }
+
+    private static long rangeMask(int first, int last) {
+        long upTo = last == Long.SIZE - 1 ? -1L : (1L << (last + 1)) - 1;
+        return upTo & ~((1L << first) - 1);
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
@@ -0,0 +1,112 @@
+package com.hms.service;
+
+import com.hms.model.BillStatus;
+import com.hms.model.BillTotals;
+import com.hms.model.BillingBalance;
+import com.hms.repository.BillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Running bill counts and amounts (in cents) per patient and status, plus hospital-wide totals
+// Kept current by every bill write, so balances never need to load Bill rows
+// Totals are updated with atomic adds, so a reader may briefly see one counter ahead of another
+@Component
+public class BillingAggregates {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingAggregates.class);
+
+    // Slot s.ordinal() holds the bill count for status s, slot STATUSES.length + s.ordinal() the amount in cents
+    private static final BillStatus[] STATUSES = BillStatus.values();
+    private static final int SLOTS = STATUSES.length * 2;
+
+    private final BillRepository billRepository;
+    private final Map<Long, AtomicLongArray> byPatient = new ConcurrentHashMap<>();
+    private final AtomicLongArray hospital = new AtomicLongArray(SLOTS);
+
+    public BillingAggregates(BillRepository billRepository) {
+        this.billRepository = billRepository;
+    }
+
+    // Runs after DataInitializer - one grouped query, not a scan of every bill in Java
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        byPatient.clear();
+        for (int i = 0; i < SLOTS; i++) {
+            hospital.set(i, 0);
+        }
+        List<BillTotals> totals = billRepository.sumByPatientAndStatus();
+        for (BillTotals row : totals) {
+            add(row.patientId(), row.status(), row.count(), cents(row.amount()));
+        }
+        log.info("Billing aggregates built for {} patients", byPatient.size());
+    }
+
+    // Bill writes - called after the change has been saved
+    public void billAdded(Long patientId, BillStatus status, BigDecimal amount) {
+        add(patientId, status, 1, cents(amount));
+    }
+
+    public void billRemoved(Long patientId, BillStatus status, BigDecimal amount) {
+        add(patientId, status, -1, -cents(amount));
+    }
+
+    public void statusChanged(Long patientId, BillStatus from, BillStatus to, BigDecimal amount) {
+        billRemoved(patientId, from, amount);
+        billAdded(patientId, to, amount);
+    }
+
+    public BillingBalance balance(Long patientId) {
+        AtomicLongArray counters = byPatient.get(patientId);
+        return toBalance(patientId, counters != null ? counters : new AtomicLongArray(SLOTS));
+    }
+
+    public BillingBalance hospitalSummary() {
+        return toBalance(null, hospital);
+    }
+
+    // Patient deleted - its bills went with it (cascade), so take them off the hospital totals too
+    public void patientRemoved(Long patientId) {
+        AtomicLongArray counters = byPatient.remove(patientId);
+        if (counters != null) {
+            for (int i = 0; i < SLOTS; i++) {
+                hospital.addAndGet(i, -counters.get(i));
+            }
+        }
+    }
+
+    private void add(Long patientId, BillStatus status, long count, long cents) {
+        int slot = status.ordinal();
+        AtomicLongArray counters = byPatient.computeIfAbsent(patientId, id -> new AtomicLongArray(SLOTS));
+        counters.addAndGet(slot, count);
+        counters.addAndGet(STATUSES.length + slot, cents);
+        hospital.addAndGet(slot, count);
+        hospital.addAndGet(STATUSES.length + slot, cents);
+    }
+
+    private static BillingBalance toBalance(Long patientId, AtomicLongArray counters) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Map<String, BigDecimal> amounts = new LinkedHashMap<>();
+        for (BillStatus status : STATUSES) {
+            counts.put(status.name(), counters.get(status.ordinal()));
+            amounts.put(status.name(), BigDecimal.valueOf(counters.get(STATUSES.length + status.ordinal()), 2));
+        }
+        long outstanding = counters.get(STATUSES.length + BillStatus.PENDING.ordinal())
+                + counters.get(STATUSES.length + BillStatus.OVERDUE.ordinal());
+        return new BillingBalance(patientId, BigDecimal.valueOf(outstanding, 2), counts, amounts);
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
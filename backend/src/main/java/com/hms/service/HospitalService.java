@@ -7,58 +7,190 @@ import com.hms.model.Bill;
 import com.hms.model.DoctorDTO;
 import com.hms.model.PatientDTO;
 import com.hms.model.AppointmentDTO;
+import com.hms.model.AppointmentStatus;
+import com.hms.model.AvailableSlot;
 import com.hms.model.BillDTO;
+import com.hms.model.BillStatus;
+import com.hms.model.BookedSlot;
+import com.hms.model.BulkBookingResult;
+import com.hms.model.CursorPage;
+import com.hms.model.LookupMatch;
+import com.hms.model.PatientSummary;
+import com.hms.model.PatientText;
+import com.hms.model.AppointmentSummary;
+import com.hms.model.AppointmentUpdate;
+import com.hms.model.AppointmentUpdateResult;
+import com.hms.model.BillSummary;
+import com.hms.model.BillingBalance;
 import com.hms.repository.DoctorRepository;
 import com.hms.repository.PatientRepository;
 import com.hms.repository.AppointmentRepository;
 import com.hms.repository.BillRepository;
+import com.hms.config.CacheConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.lang.NonNull;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 // Main service for hospital operations
 @Service
 public class HospitalService {
 
+    // Page size limits for the keyset-paginated list endpoints
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Typeahead returns a short list - it's refreshed on every keystroke
+    public static final int DEFAULT_LOOKUP_SIZE = 10;
+    public static final int MAX_LOOKUP_SIZE = 50;
+
+    // Availability searches - how many free slots to return, and the default window
+    public static final int DEFAULT_SLOT_LIMIT = 20;
+    public static final int MAX_SLOT_LIMIT = 500;
+    private static final Duration DEFAULT_SLOT_WINDOW = Duration.ofDays(7);
+
+    // NDJSON export flushes the response every this many rows
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final BillRepository billRepository;
+    private final ObjectWriter exportWriter;
+
+    // Read-through caches for doctor/patient lookups - the roster rarely changes
+    // Evicted by the update/delete methods below
+    private final ReadThroughCache doctorCache;
+    private final ReadThroughCache patientCache;
+    private final ReadThroughCache specialtyCache;
+
+    // Double-booking protection - every appointment blocks the doctor for this long
+    private final DoctorScheduleLocks doctorScheduleLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration appointmentLength;
+
+    // Free-slot index for availability searches - updated after every schedule change
+    private final AvailabilityIndex availabilityIndex;
+
+    // Full-text patient search - updated by the patient write methods below
+    private final PatientSearchIndex patientSearchIndex;
+
+    // Typeahead over patient name/phone and doctor name/license - same write hooks
+    private final LookupIndex lookupIndex;
+
+    // Running bill totals per patient - updated by the bill write methods
+    private final BillingAggregates billingAggregates;
+
+    // Queued status/notes updates, committed in groups - reads overlay what is still queued
+    private final AppointmentWriteBehind appointmentWriteBehind;
 
     public HospitalService(DoctorRepository doctorRepository, 
                           PatientRepository patientRepository,
                           AppointmentRepository appointmentRepository,
-                          BillRepository billRepository) {
+                          BillRepository billRepository,
+                          ObjectMapper objectMapper,
+                          CacheManager cacheManager,
+                          DoctorScheduleLocks doctorScheduleLocks,
+                          TransactionTemplate transactionTemplate,
+                          AvailabilityIndex availabilityIndex,
+                          PatientSearchIndex patientSearchIndex,
+                          LookupIndex lookupIndex,
+                          BillingAggregates billingAggregates,
+                          AppointmentWriteBehind appointmentWriteBehind,
+                          @Value("${hms.appointments.duration-minutes:30}") long appointmentMinutes) {
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
         this.billRepository = billRepository;
+        // Flushing after every row would defeat buffering, so exports flush per chunk instead
+        this.exportWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.doctorCache = new ReadThroughCache(cacheManager.getCache(CacheConfig.DOCTORS));
+        this.patientCache = new ReadThroughCache(cacheManager.getCache(CacheConfig.PATIENTS));
+        this.specialtyCache = new ReadThroughCache(cacheManager.getCache(CacheConfig.DOCTORS_BY_SPECIALTY));
+        this.doctorScheduleLocks = doctorScheduleLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.appointmentLength = Duration.ofMinutes(appointmentMinutes);
+        this.availabilityIndex = availabilityIndex;
+        this.patientSearchIndex = patientSearchIndex;
+        this.lookupIndex = lookupIndex;
+        this.billingAggregates = billingAggregates;
+        this.appointmentWriteBehind = appointmentWriteBehind;
     }
 
     // Doctor operations
+    @Transactional(readOnly = true)
     public List<DoctorDTO> getAllDoctors() {
         return doctorRepository.findAll().stream()
                 .map(this::convertToDoctorDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<DoctorDTO> getDoctors(Long after, Integer limit) {
+        int size = pageSize(limit);
+        Slice<Doctor> slice = doctorRepository.findByIdGreaterThanOrderByIdAsc(cursor(after), PageRequest.ofSize(size));
+        return toCursorPage(slice, size, Doctor::getId, this::convertToDoctorDTO);
+    }
+
+    @Transactional(readOnly = true)
     public DoctorDTO getDoctorById(@NonNull Long id) {
-        Doctor doctor = doctorRepository.findById(id)
+        return cachedDoctor(id);
+    }
+
+    // Version lookups for conditional GETs - one narrow query, no entity or DTO conversion
+    @Transactional(readOnly = true)
+    public long getDoctorVersion(@NonNull Long id) {
+        return doctorRepository.findVersionById(id)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
-        return convertToDoctorDTO(doctor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DoctorDTO> getDoctorsBySpecialty(String specialty) {
+        return specialtyCache.get(specialty, () -> doctorRepository.findBySpecialty(specialty).stream()
+                .map(this::convertToDoctorDTO)
+                .collect(Collectors.toUnmodifiableList()));
     }
 
     public DoctorDTO createDoctor(DoctorDTO doctorDTO) {
         Doctor doctor = convertToDoctor(doctorDTO);
         Doctor savedDoctor = doctorRepository.save(doctor);
+        specialtyCache.evict(savedDoctor.getSpecialty());
+        availabilityIndex.putDoctor(savedDoctor.getId(), savedDoctor.getName(), savedDoctor.getSpecialty());
+        lookupIndex.putDoctor(savedDoctor.getId(), savedDoctor.getName(), savedDoctor.getLicenseNumber(), savedDoctor.getSpecialty());
         return convertToDoctorDTO(savedDoctor);
     }
 
     public DoctorDTO updateDoctor(@NonNull Long id, DoctorDTO doctorDTO) {
         Doctor existingDoctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
+        String previousName = existingDoctor.getName();
+        String previousLicense = existingDoctor.getLicenseNumber();
         
         existingDoctor.setName(doctorDTO.getName());
         existingDoctor.setSpecialty(doctorDTO.getSpecialty());
@@ -66,35 +198,92 @@ public class HospitalService {
         existingDoctor.setYearsOfExperience(doctorDTO.getYearsOfExperience());
         
         Doctor updatedDoctor = doctorRepository.save(existingDoctor);
-        return convertToDoctorDTO(updatedDoctor);
+        DoctorDTO updated = convertToDoctorDTO(updatedDoctor);
+        // Evicted rather than overwritten - see ReadThroughCache
+        doctorCache.evict(id);
+        // The specialty may have changed, so drop every specialty list
+        specialtyCache.clear();
+        availabilityIndex.putDoctor(id, updatedDoctor.getName(), updatedDoctor.getSpecialty());
+        lookupIndex.removeDoctor(id, previousName, previousLicense);
+        lookupIndex.putDoctor(id, updatedDoctor.getName(), updatedDoctor.getLicenseNumber(), updatedDoctor.getSpecialty());
+        return updated;
     }
 
     public void deleteDoctor(@NonNull Long id) {
+        // Loaded first so the lookup index knows which keys to drop
+        Doctor doctor = doctorRepository.findById(id).orElse(null);
         doctorRepository.deleteById(id);
+        doctorCache.evict(id);
+        specialtyCache.clear();
+        availabilityIndex.removeDoctor(id);
+        if (doctor != null) {
+            lookupIndex.removeDoctor(id, doctor.getName(), doctor.getLicenseNumber());
+        }
     }
 
     // Patient operations
-    public List<PatientDTO> getAllPatients() {
-        return patientRepository.findAll().stream()
-                .map(this::convertToPatientDTO)
-                .collect(Collectors.toList());
+    // Lists return the lightweight summary - full PatientDTO only comes from getPatientById
+    @Transactional(readOnly = true)
+    public List<PatientSummary> getAllPatients() {
+        return patientRepository.findAllSummaries();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<PatientSummary> getPatients(Long after, Integer limit) {
+        int size = pageSize(limit);
+        Slice<PatientSummary> slice = patientRepository.findSummariesAfter(cursor(after), PageRequest.ofSize(size));
+        return toCursorPage(slice, size, PatientSummary::id, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
     public PatientDTO getPatientById(@NonNull Long id) {
-        Patient patient = patientRepository.findById(id)
+        return cachedPatient(id);
+    }
+
+    @Transactional(readOnly = true)
+    public long getPatientVersion(@NonNull Long id) {
+        return patientRepository.findVersionById(id)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
-        return convertToPatientDTO(patient);
+    }
+
+    // Ranked full-text search - ids come from the in-memory index, then one query loads the rows
+    @Transactional(readOnly = true)
+    public List<PatientSummary> searchPatients(String query, Integer limit) {
+        List<Long> ranked = patientSearchIndex.search(query, pageSize(limit));
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PatientSummary> byId = patientRepository.findSummariesByIdIn(ranked).stream()
+                .collect(Collectors.toMap(PatientSummary::id, Function.identity()));
+        List<PatientSummary> results = new ArrayList<>(ranked.size());
+        for (Long id : ranked) {
+            PatientSummary summary = byId.get(id);
+            if (summary != null) {
+                results.add(summary);
+            }
+        }
+        return results;
+    }
+
+    // Typeahead - type is "patient" or "doctor" to narrow the results, or null for both
+    public List<LookupMatch> lookup(String prefix, String type, Integer limit) {
+        int size = limit == null || limit < 1 ? DEFAULT_LOOKUP_SIZE : Math.min(limit, MAX_LOOKUP_SIZE);
+        String owner = type == null || type.isBlank() ? null : type.trim().toUpperCase(Locale.ROOT);
+        return lookupIndex.lookup(prefix, owner, size);
     }
 
     public PatientDTO createPatient(PatientDTO patientDTO) {
         Patient patient = convertToPatient(patientDTO);
         Patient savedPatient = patientRepository.save(patient);
+        patientSearchIndex.add(PatientText.of(savedPatient));
+        lookupIndex.putPatient(savedPatient.getId(), savedPatient.getName(), savedPatient.getPhone());
         return convertToPatientDTO(savedPatient);
     }
 
     public PatientDTO updatePatient(@NonNull Long id, PatientDTO patientDTO) {
         Patient existingPatient = patientRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
+        PatientText before = PatientText.of(existingPatient);
         
         existingPatient.setName(patientDTO.getName());
         existingPatient.setEmail(patientDTO.getEmail());
@@ -103,57 +292,394 @@ public class HospitalService {
         existingPatient.setMedicalHistory(patientDTO.getMedicalHistory());
         
         Patient updatedPatient = patientRepository.save(existingPatient);
-        return convertToPatientDTO(updatedPatient);
+        PatientDTO updated = convertToPatientDTO(updatedPatient);
+        patientCache.evict(id);
+        patientSearchIndex.replace(before, PatientText.of(updatedPatient));
+        lookupIndex.removePatient(id, before.name(), before.phone());
+        lookupIndex.putPatient(id, updatedPatient.getName(), updatedPatient.getPhone());
+        return updated;
     }
 
     public void deletePatient(@NonNull Long id) {
-        patientRepository.deleteById(id);
+        // Loaded first so the index knows which terms to drop
+        Patient patient = patientRepository.findById(id).orElse(null);
+        // The patient's appointments are removed by the cascade - the days they held are
+        // refreshed under the doctors' locks, like deleteAppointment does for one
+        Map<Long, Set<LocalDate>> heldDays = new HashMap<>();
+        for (BookedSlot slot : appointmentRepository.findBookedSlotsByPatientId(id)) {
+            heldDays.computeIfAbsent(slot.doctorId(), doctorId -> new HashSet<>()).add(slot.start().toLocalDate());
+        }
+        doctorScheduleLocks.withLocks(heldDays.keySet(), () -> {
+            patientRepository.deleteById(id);
+            heldDays.forEach((doctorId, days) -> days.forEach(day -> availabilityIndex.refreshDay(doctorId, day)));
+            return null;
+        });
+        patientCache.evict(id);
+        if (patient != null) {
+            patientSearchIndex.remove(PatientText.of(patient));
+            lookupIndex.removePatient(id, patient.getName(), patient.getPhone());
+            // The patient's bills are removed by the cascade
+            billingAggregates.patientRemoved(id);
+        }
     }
 
     // Appointment operations
-    public List<AppointmentDTO> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(this::convertToAppointmentDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<AppointmentSummary> getAllAppointments() {
+        return appointmentRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentSummary> getAppointments(Long after, Integer limit) {
+        int size = pageSize(limit);
+        Slice<AppointmentSummary> slice = appointmentRepository.findSummariesAfter(cursor(after), PageRequest.ofSize(size));
+        return toCursorPage(slice, size, AppointmentSummary::id, Function.identity());
     }
 
+    @Transactional(readOnly = true)
     public AppointmentDTO getAppointmentById(@NonNull Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        Appointment appointment = appointmentRepository.findWithPatientAndDoctorById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
-        return convertToAppointmentDTO(appointment);
+        return appointmentWriteBehind.overlay(convertToAppointmentDTO(appointment));
+    }
+
+    // True while an update for the appointment is queued - its row version doesn't describe it yet
+    public boolean hasPendingAppointmentUpdate(@NonNull Long id) {
+        return appointmentWriteBehind.hasPending(id);
+    }
+
+    // Status/notes changes go through the write-behind queue; completes once committed
+    public CompletableFuture<AppointmentUpdateResult> updateAppointment(@NonNull Long id, @NonNull AppointmentUpdate update) {
+        return appointmentWriteBehind.submit(id, update);
+    }
+
+    @Transactional(readOnly = true)
+    public String getAppointmentVersion(@NonNull Long id) {
+        return appointmentRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Appointment not found"));
+    }
+
+    // Free slots by specialty - answered from the availability index, no database access
+    // The window defaults to the week starting now
+    public List<AvailableSlot> findFreeSlots(String specialty, LocalDateTime from, LocalDateTime to, Integer limit) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plus(DEFAULT_SLOT_WINDOW);
+        int size = limit == null || limit < 1 ? DEFAULT_SLOT_LIMIT : Math.min(limit, MAX_SLOT_LIMIT);
+        return availabilityIndex.findFree(specialty, start, end, size);
     }
 
     public AppointmentDTO createAppointment(AppointmentDTO appointmentDTO) {
         Appointment appointment = convertToAppointment(appointmentDTO);
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment;
+        if (blocksSchedule(appointment)) {
+            Long doctorId = appointment.getDoctor().getId();
+            // Check-then-insert under the doctor's lock, in one read-write transaction so the
+            // check runs on the primary; it commits before the lock is released. The doctor's
+            // row lock does the same job across app instances
+            savedAppointment = doctorScheduleLocks.withLock(doctorId, () -> {
+                LocalDateTime start = appointment.getAppointmentDateTime();
+                Appointment saved = transactionTemplate.execute(status -> {
+                    doctorRepository.lockForBooking(doctorId)
+                            .orElseThrow(() -> new RuntimeException("Doctor not found"));
+                    if (appointmentRepository.existsOverlapping(doctorId, start.minus(appointmentLength), start.plus(appointmentLength))) {
+                        throw new BookingConflictException("Doctor already has an appointment at " + start);
+                    }
+                    return appointmentRepository.save(appointment);
+                });
+                availabilityIndex.book(doctorId, start);
+                return saved;
+            });
+        } else {
+            savedAppointment = appointmentRepository.save(appointment);
+        }
         return convertToAppointmentDTO(savedAppointment);
     }
 
+    // Books a whole series at once: every referenced patient and doctor is resolved with
+    // one findAllById each, the batch is validated in memory, and the valid items are
+    // inserted together (Hibernate sends them as JDBC batches) in one transaction
+    public BulkBookingResult bookAppointments(List<AppointmentDTO> requests) {
+        Set<Long> patientIds = new HashSet<>();
+        Set<Long> doctorIds = new HashSet<>();
+        for (AppointmentDTO request : requests) {
+            if (request.getPatient() != null && request.getPatient().id() != null) {
+                patientIds.add(request.getPatient().id());
+            }
+            if (request.getDoctor() != null && request.getDoctor().getId() != null) {
+                doctorIds.add(request.getDoctor().getId());
+            }
+        }
+        Map<Long, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        Map<Long, Doctor> doctors = doctorRepository.findAllById(doctorIds).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+
+        BulkBookingResult result = new BulkBookingResult();
+        List<Appointment> candidates = new ArrayList<>(requests.size());
+        List<Integer> candidateIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            AppointmentDTO request = requests.get(i);
+            Patient patient = request.getPatient() != null && request.getPatient().id() != null
+                    ? patients.get(request.getPatient().id()) : null;
+            Doctor doctor = request.getDoctor() != null && request.getDoctor().getId() != null
+                    ? doctors.get(request.getDoctor().getId()) : null;
+            if (patient == null) {
+                result.addRejected(i, "Patient not found");
+            } else if (doctor == null) {
+                result.addRejected(i, "Doctor not found");
+            } else if (request.getAppointmentDateTime() == null) {
+                result.addRejected(i, "Appointment date/time is required");
+            } else if (!isAppointmentStatus(request.getStatus())) {
+                result.addRejected(i, "Unknown appointment status: " + request.getStatus());
+            } else {
+                Appointment appointment = new Appointment();
+                appointment.setPatient(patient);
+                appointment.setDoctor(doctor);
+                appointment.setAppointmentDateTime(request.getAppointmentDateTime());
+                appointment.setStatus(AppointmentStatus.parse(request.getStatus()));
+                appointment.setReasonForVisit(request.getReasonForVisit());
+                appointment.setNotes(request.getNotes());
+                candidates.add(appointment);
+                candidateIndexes.add(i);
+            }
+        }
+
+        // Conflict check and insert run under the involved doctors' locks (in-JVM stripes and
+        // database row locks), and the transaction commits before they're released
+        doctorScheduleLocks.withLocks(doctors.keySet(), () -> {
+            List<Appointment> inserted = transactionTemplate.execute(status -> {
+                if (!doctors.isEmpty()) {
+                    doctorRepository.lockAllForBooking(doctors.keySet());
+                }
+                Map<Long, List<LocalDateTime>> booked = loadBookedSlots(candidates);
+                List<Appointment> toSave = new ArrayList<>(candidates.size());
+                List<Integer> savedIndexes = new ArrayList<>(candidates.size());
+                for (int i = 0; i < candidates.size(); i++) {
+                    Appointment appointment = candidates.get(i);
+                    if (blocksSchedule(appointment)) {
+                        List<LocalDateTime> doctorSlots = booked.computeIfAbsent(appointment.getDoctor().getId(), id -> new ArrayList<>());
+                        if (overlapsAny(doctorSlots, appointment.getAppointmentDateTime())) {
+                            result.addRejected(candidateIndexes.get(i), "Doctor already has an appointment at " + appointment.getAppointmentDateTime());
+                            continue;
+                        }
+                        // Later items in the same batch must not collide with this one either
+                        doctorSlots.add(appointment.getAppointmentDateTime());
+                    }
+                    toSave.add(appointment);
+                    savedIndexes.add(candidateIndexes.get(i));
+                }
+                List<Appointment> saved = appointmentRepository.saveAll(toSave);
+                for (int i = 0; i < saved.size(); i++) {
+                    result.addCreated(savedIndexes.get(i), saved.get(i).getId());
+                }
+                return saved;
+            });
+            // Index the new bookings after commit, before the locks are released
+            for (Appointment appointment : inserted) {
+                if (blocksSchedule(appointment)) {
+                    availabilityIndex.book(appointment.getDoctor().getId(), appointment.getAppointmentDateTime());
+                }
+            }
+            return null;
+        });
+        result.getItems().sort((a, b) -> Integer.compare(a.index(), b.index()));
+        return result;
+    }
+
+    // Booking helpers
+    private boolean blocksSchedule(Appointment appointment) {
+        return appointment.getDoctor() != null && appointment.getDoctor().getId() != null
+                && appointment.getAppointmentDateTime() != null
+                && appointment.getStatus() != AppointmentStatus.CANCELLED;
+    }
+
+    private static boolean isAppointmentStatus(String status) {
+        try {
+            AppointmentStatus.parse(status);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean overlapsAny(List<LocalDateTime> booked, LocalDateTime start) {
+        for (LocalDateTime other : booked) {
+            if (Duration.between(other, start).abs().compareTo(appointmentLength) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // One query for every existing booking that could clash with the batch
+    private Map<Long, List<LocalDateTime>> loadBookedSlots(List<Appointment> candidates) {
+        Map<Long, List<LocalDateTime>> booked = new HashMap<>();
+        Set<Long> doctorIds = new HashSet<>();
+        LocalDateTime earliest = null;
+        LocalDateTime latest = null;
+        for (Appointment appointment : candidates) {
+            if (!blocksSchedule(appointment)) {
+                continue;
+            }
+            LocalDateTime start = appointment.getAppointmentDateTime();
+            doctorIds.add(appointment.getDoctor().getId());
+            earliest = earliest == null || start.isBefore(earliest) ? start : earliest;
+            latest = latest == null || start.isAfter(latest) ? start : latest;
+        }
+        if (doctorIds.isEmpty()) {
+            return booked;
+        }
+        for (BookedSlot slot : appointmentRepository.findBookedSlots(doctorIds,
+                earliest.minus(appointmentLength), latest.plus(appointmentLength))) {
+            booked.computeIfAbsent(slot.doctorId(), id -> new ArrayList<>()).add(slot.start());
+        }
+        return booked;
+    }
+
+    // Writes every appointment as one JSON object per line without building a list first
+    @Transactional(readOnly = true)
+    public void exportAppointments(OutputStream out) throws IOException {
+        try (Stream<AppointmentSummary> appointments = appointmentRepository.streamAllForExport()) {
+            writeNdjson(appointments, out);
+        }
+    }
+
     public void deleteAppointment(@NonNull Long id) {
-        appointmentRepository.deleteById(id);
+        Appointment appointment = appointmentRepository.findById(id).orElse(null);
+        if (appointment == null || !blocksSchedule(appointment)) {
+            appointmentRepository.deleteById(id);
+            return;
+        }
+        // Freeing the slot goes through the doctor's lock so the index can't miss a booking made meanwhile
+        Long doctorId = appointment.getDoctor().getId();
+        doctorScheduleLocks.withLock(doctorId, () -> {
+            appointmentRepository.deleteById(id);
+            availabilityIndex.refreshDay(doctorId, appointment.getAppointmentDateTime().toLocalDate());
+            return null;
+        });
     }
 
     // Billing operations
-    public List<BillDTO> getAllBills() {
-        return billRepository.findAll().stream()
-                .map(this::convertToBillDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<BillSummary> getAllBills() {
+        return billRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<BillSummary> getBills(Long after, Integer limit) {
+        int size = pageSize(limit);
+        Slice<BillSummary> slice = billRepository.findSummariesAfter(cursor(after), PageRequest.ofSize(size));
+        return toCursorPage(slice, size, BillSummary::id, Function.identity());
     }
 
+    @Transactional(readOnly = true)
     public BillDTO getBillById(@NonNull Long id) {
-        Bill bill = billRepository.findById(id)
+        Bill bill = billRepository.findWithPatientById(id)
                 .orElseThrow(() -> new RuntimeException("Bill not found"));
         return convertToBillDTO(bill);
     }
 
+    @Transactional(readOnly = true)
+    public String getBillVersion(@NonNull Long id) {
+        return billRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Bill not found"));
+    }
+
     public BillDTO createBill(@NonNull BillDTO billDTO) {
         Bill bill = convertToBill(billDTO);
         Bill savedBill = billRepository.save(bill);
+        if (savedBill.getPatient().getId() != null) {
+            billingAggregates.billAdded(savedBill.getPatient().getId(), savedBill.getStatus(), savedBill.getAmount());
+        }
         return convertToBillDTO(savedBill);
     }
 
+    // Both answered from the running aggregates - no Bill rows are read
+    @Transactional(readOnly = true)
+    public BillingBalance getPatientBalance(@NonNull Long patientId) {
+        cachedPatient(patientId);
+        return billingAggregates.balance(patientId);
+    }
+
+    public BillingBalance getBillingSummary() {
+        return billingAggregates.hospitalSummary();
+    }
+
+    // Writes every bill as one JSON object per line without building a list first
+    @Transactional(readOnly = true)
+    public void exportBills(OutputStream out) throws IOException {
+        try (Stream<BillSummary> bills = billRepository.streamAllForExport()) {
+            writeNdjson(bills, out);
+        }
+    }
+
+    // Read and delete under the bill's row lock, so a sweep chunk can't flip it in between and
+    // the status taken off the aggregates is the one the row had when it went
     public void deleteBill(@NonNull Long id) {
-        billRepository.deleteById(id);
+        Bill bill = transactionTemplate.execute(status -> {
+            Bill locked = billRepository.lockById(id).orElse(null);
+            if (locked != null) {
+                billRepository.delete(locked);
+            }
+            return locked;
+        });
+        // Only after commit, like the sweeper - a rolled-back delete never reaches the aggregates
+        if (bill != null) {
+            billingAggregates.billRemoved(bill.getPatient().getId(), bill.getStatus(), bill.getAmount());
+        }
+    }
+
+    // Paging helpers
+    private static int pageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static long cursor(Long after) {
+        // Ids start at 1, so 0 means "from the beginning"
+        return after != null ? after : 0L;
+    }
+
+    private static <E, D> CursorPage<D> toCursorPage(Slice<E> slice, int size,
+                                                     Function<E, Long> idOf, Function<E, D> converter) {
+        List<E> content = slice.getContent();
+        List<D> items = content.stream().map(converter).collect(Collectors.toList());
+        Long nextCursor = slice.hasNext() && !content.isEmpty()
+                ? idOf.apply(content.get(content.size() - 1))
+                : null;
+        return new CursorPage<>(items, nextCursor, size, slice.hasNext());
+    }
+
+    // Export helper - writes rows one at a time so memory stays flat
+    private <T> void writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = exportWriter.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly, so no separator between root values
+        generator.setRootValueSeparator(null);
+        int written = 0;
+        for (T row : (Iterable<T>) rows::iterator) {
+            exportWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+            written++;
+            // Flush the first row straight away so the client starts receiving immediately
+            if (written == 1 || written % EXPORT_CHUNK_SIZE == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+    }
+
+    // Cache helpers - read through to the database on a miss
+    private DoctorDTO cachedDoctor(@NonNull Long id) {
+        return doctorCache.get(id, () -> convertToDoctorDTO(doctorRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"))));
+    }
+
+    private PatientDTO cachedPatient(@NonNull Long id) {
+        return patientCache.get(id, () -> convertToPatientDTO(patientRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Patient not found"))));
     }
 
     // Helper methods
@@ -164,6 +690,7 @@ public class HospitalService {
         dto.setSpecialty(doctor.getSpecialty());
         dto.setLicenseNumber(doctor.getLicenseNumber());
         dto.setYearsOfExperience(doctor.getYearsOfExperience());
+        dto.setVersion(doctor.getVersion());
         return dto;
     }
 
@@ -184,9 +711,20 @@ public class HospitalService {
         dto.setPhone(patient.getPhone());
         dto.setDateOfBirth(patient.getDateOfBirth());
         dto.setMedicalHistory(patient.getMedicalHistory());
+        dto.setVersion(patient.getVersion());
         return dto;
     }
 
+    // What appointments and bills nest - the same fields as the list views
+    private static PatientSummary convertToPatientSummary(@NonNull Patient patient) {
+        return new PatientSummary(patient.getId(), patient.getName(), patient.getEmail(),
+                patient.getPhone(), patient.getDateOfBirth());
+    }
+
+    private static PatientSummary convertToPatientSummary(@NonNull PatientDTO dto) {
+        return new PatientSummary(dto.getId(), dto.getName(), dto.getEmail(), dto.getPhone(), dto.getDateOfBirth());
+    }
+
     private Patient convertToPatient(PatientDTO dto) {
         Patient patient = new Patient();
         patient.setName(dto.getName());
@@ -197,13 +735,30 @@ public class HospitalService {
         return patient;
     }
 
-    private AppointmentDTO convertToAppointmentDTO(@NonNull Appointment appointment) {
+    // A new patient given inline with an appointment or bill - no medical history yet
+    private Patient convertToPatient(PatientSummary summary) {
+        Patient patient = new Patient();
+        patient.setName(summary.name());
+        patient.setEmail(summary.email());
+        patient.setPhone(summary.phone());
+        patient.setDateOfBirth(summary.dateOfBirth());
+        return patient;
+    }
+
+    // Package-private (like convertToBillDTO) so the JMH benchmarks can measure it directly
+    AppointmentDTO convertToAppointmentDTO(@NonNull Appointment appointment) {
         AppointmentDTO dto = new AppointmentDTO();
         dto.setId(appointment.getId());
-        dto.setPatient(convertToPatientDTO(appointment.getPatient()));
-        dto.setDoctor(convertToDoctorDTO(appointment.getDoctor()));
+        // The finders fetch-join patient and doctor, so they are read straight off the entity;
+        // only a reference that was never loaded (a booking made by id) comes from the cache,
+        // which convertToAppointment has just filled
+        Patient patient = appointment.getPatient();
+        Doctor doctor = appointment.getDoctor();
+        dto.setPatient(Hibernate.isInitialized(patient)
+                ? convertToPatientSummary(patient) : convertToPatientSummary(cachedPatient(patient.getId())));
+        dto.setDoctor(Hibernate.isInitialized(doctor) ? convertToDoctorDTO(doctor) : cachedDoctor(doctor.getId()));
         dto.setAppointmentDateTime(appointment.getAppointmentDateTime());
-        dto.setStatus(appointment.getStatus());
+        dto.setStatus(appointment.getStatus().name());
         dto.setReasonForVisit(appointment.getReasonForVisit());
         dto.setNotes(appointment.getNotes());
         return dto;
@@ -212,43 +767,47 @@ public class HospitalService {
     private Appointment convertToAppointment(@NonNull AppointmentDTO dto) {
         Appointment appointment = new Appointment();
         
-        // Handle patient - if only ID is provided, fetch from repository
+        // Handle patient - if only ID is provided, check it exists (via the cache)
+        // and use a reference instead of loading the row again
         if (dto.getPatient() != null) {
-            if (dto.getPatient().getId() != null) {
-                Patient patient = patientRepository.findById(dto.getPatient().getId())
-                        .orElseThrow(() -> new RuntimeException("Patient not found"));
-                appointment.setPatient(patient);
+            if (dto.getPatient().id() != null) {
+                Long patientId = dto.getPatient().id();
+                cachedPatient(patientId);
+                appointment.setPatient(patientRepository.getReferenceById(patientId));
             } else {
                 appointment.setPatient(convertToPatient(dto.getPatient()));
             }
         }
         
-        // Handle doctor - if only ID is provided, fetch from repository
+        // Same for the doctor
         if (dto.getDoctor() != null) {
             if (dto.getDoctor().getId() != null) {
-                Doctor doctor = doctorRepository.findById(dto.getDoctor().getId())
-                        .orElseThrow(() -> new RuntimeException("Doctor not found"));
-                appointment.setDoctor(doctor);
+                Long doctorId = dto.getDoctor().getId();
+                cachedDoctor(doctorId);
+                appointment.setDoctor(doctorRepository.getReferenceById(doctorId));
             } else {
                 appointment.setDoctor(convertToDoctor(dto.getDoctor()));
             }
         }
         
         appointment.setAppointmentDateTime(dto.getAppointmentDateTime());
-        appointment.setStatus(dto.getStatus() != null ? dto.getStatus() : "SCHEDULED");
+        appointment.setStatus(AppointmentStatus.parse(dto.getStatus()));
         appointment.setReasonForVisit(dto.getReasonForVisit());
         appointment.setNotes(dto.getNotes());
         return appointment;
     }
 
-    private BillDTO convertToBillDTO(@NonNull Bill bill) {
+    BillDTO convertToBillDTO(@NonNull Bill bill) {
         BillDTO dto = new BillDTO();
         dto.setId(bill.getId());
         if (bill.getPatient() != null) {
-            dto.setPatient(convertToPatientDTO(bill.getPatient()));
+            // Same as appointments - fetch-joined, or a reference the cache already knows
+            Patient patient = bill.getPatient();
+            dto.setPatient(Hibernate.isInitialized(patient)
+                    ? convertToPatientSummary(patient) : convertToPatientSummary(cachedPatient(patient.getId())));
         }
         dto.setAmount(bill.getAmount());
-        dto.setStatus(bill.getStatus());
+        dto.setStatus(bill.getStatus().name());
         dto.setBillDate(bill.getBillDate());
         dto.setDueDate(bill.getDueDate());
         dto.setDescription(bill.getDescription());
@@ -258,11 +817,18 @@ public class HospitalService {
 
     private Bill convertToBill(@NonNull BillDTO dto) {
         Bill bill = new Bill();
+        // Same as appointments - an existing patient is referenced by ID rather than copied
         if (dto.getPatient() != null) {
-            bill.setPatient(convertToPatient(dto.getPatient()));
+            if (dto.getPatient().id() != null) {
+                Long patientId = dto.getPatient().id();
+                cachedPatient(patientId);
+                bill.setPatient(patientRepository.getReferenceById(patientId));
+            } else {
+                bill.setPatient(convertToPatient(dto.getPatient()));
+            }
         }
         bill.setAmount(dto.getAmount());
-        bill.setStatus(dto.getStatus() != null ? dto.getStatus() : "PENDING");
+        bill.setStatus(BillStatus.parse(dto.getStatus()));
         bill.setBillDate(dto.getBillDate() != null ? dto.getBillDate() : java.time.LocalDateTime.now());
         bill.setDueDate(dto.getDueDate());
         bill.setDescription(dto.getDescription());
@@ -0,0 +1,14 @@
+package com.hms.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when an Idempotency-Key is unusable - too long, or already used for a different
+// request body - surfaces as 422 Unprocessable Entity
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyException extends RuntimeException {
+
+    public IdempotencyKeyException(String message) {
+        super(message);
+    }
+}
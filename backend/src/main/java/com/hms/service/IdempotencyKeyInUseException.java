@@ -0,0 +1,14 @@
+package com.hms.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown to a duplicate request when the first request with its Idempotency-Key is still
+// running after the wait limit - surfaces as 409 Conflict, the client retries later
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+}
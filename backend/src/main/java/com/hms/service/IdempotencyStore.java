@@ -0,0 +1,114 @@
+package com.hms.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Idempotency-Key support for the create endpoints - a client retrying a timed-out POST
+// with the same key gets the original response back instead of a second row
+// The first request with a key runs; any concurrent duplicate waits for it (up to a limit)
+// and shares its result, later ones replay it from a bounded store until it expires.
+// Failures aren't stored, so a retry after an error runs again. A key reused with a
+// different body is rejected rather than answered with someone else's response
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // A finished (or running) request - body fingerprint and the response it produced
+    private record Stored(byte[] fingerprint, Object response) {
+    }
+
+    // The response plus whether it is a replay of an earlier request
+    public record Outcome<T>(T response, boolean replayed) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CompletableFuture<Stored>> results;
+    private final long waitMillis;
+
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${hms.idempotency.max-entries:10000}") long maxEntries,
+                            @Value("${hms.idempotency.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${hms.idempotency.wait-timeout-ms:30000}") long waitMillis) {
+        this.objectMapper = objectMapper;
+        this.waitMillis = waitMillis;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    // Runs action once per (scope, caller, key) - scope keeps keys of different endpoints
+    // apart and caller those of different users, so nobody can replay someone else's response
+    // caller is empty for anonymous requests
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String scope, String caller, String key, Object requestBody, Supplier<T> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = scope + '\n' + caller + '\n' + key;
+        byte[] fingerprint = fingerprint(requestBody);
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> existing = results.asMap().putIfAbsent(cacheKey, mine);
+
+        if (existing == null) {
+            try {
+                T response = action.get();
+                mine.complete(new Stored(fingerprint, response));
+                return new Outcome<>(response, false);
+            } catch (Throwable e) {
+                // Errors too - a waiter must never be left on a future nobody completes
+                // Forget the key so the client's next retry really runs again
+                results.asMap().remove(cacheKey, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        // Someone else has (or is) handling this key - wait a bounded time for their answer
+        Stored stored;
+        try {
+            stored = existing.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInUseException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException("Interrupted while waiting for the request with this Idempotency-Key");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        if (!Arrays.equals(stored.fingerprint(), fingerprint)) {
+            throw new IdempotencyKeyException("Idempotency-Key was already used for a different request");
+        }
+        return new Outcome<>((T) stored.response(), true);
+    }
+
+    // SHA-256 of the request body as JSON - cheap to keep and compare
+    private byte[] fingerprint(Object requestBody) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requestBody));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request body", e);
+        }
+    }
+}
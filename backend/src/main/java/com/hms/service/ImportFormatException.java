@@ -0,0 +1,14 @@
+package com.hms.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a bulk import upload isn't in the expected shape at all (e.g. a JSON body that
+// isn't an array) - surfaces as 400 Bad Request; problems with single rows are reported per row
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ImportFormatException extends RuntimeException {
+
+    public ImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hms.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when the password-hashing queue is full - surfaces as 503 so clients back off
+// instead of piling more logins onto the queue
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoginOverloadedException extends RuntimeException {
+
+    public LoginOverloadedException(String message) {
+        super(message);
+    }
+}
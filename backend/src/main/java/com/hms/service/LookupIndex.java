@@ -0,0 +1,159 @@
+package com.hms.service;
+
+import com.hms.model.Doctor;
+import com.hms.model.LookupMatch;
+import com.hms.model.PatientSummary;
+import com.hms.repository.DoctorRepository;
+import com.hms.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+// Prefix index for typeahead lookups over patient name/phone and doctor name/license number
+// Keys are normalized values kept in a sorted map, so "all values starting with p" is one
+// range scan from p to p + '\uffff'. The skip list takes concurrent updates without a lock
+// Built at startup and kept current by HospitalService and PatientImportService
+@Component
+public class LookupIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupIndex.class);
+
+    public static final String PATIENT = "PATIENT";
+    public static final String DOCTOR = "DOCTOR";
+
+    // Separates the indexed value from the owner in a key, and sorts below every real character
+    private static final char SEPARATOR = '\u0000';
+
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final NavigableMap<String, LookupMatch> entries = new ConcurrentSkipListMap<>();
+
+    public LookupIndex(PatientRepository patientRepository, DoctorRepository doctorRepository) {
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    // Runs after DataInitializer, so the sample data is included
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        entries.clear();
+        for (Doctor doctor : doctorRepository.findAll()) {
+            putDoctor(doctor.getId(), doctor.getName(), doctor.getLicenseNumber(), doctor.getSpecialty());
+        }
+        try (Stream<PatientSummary> patients = patientRepository.streamAllSummaries()) {
+            patients.forEach(p -> putPatient(p.id(), p.name(), p.phone()));
+        }
+        log.info("Lookup index built with {} keys", entries.size());
+    }
+
+    public void putPatient(Long id, String name, String phone) {
+        for (String key : nameKeys(name)) {
+            entries.put(key(key, PATIENT, id), new LookupMatch(PATIENT, id, name, phone, "name"));
+        }
+        String digits = digits(phone);
+        if (!digits.isEmpty()) {
+            entries.put(key(digits, PATIENT, id), new LookupMatch(PATIENT, id, name, phone, "phone"));
+        }
+    }
+
+    // Takes the values the patient had, so no per-patient key list is kept
+    public void removePatient(Long id, String name, String phone) {
+        for (String key : nameKeys(name)) {
+            entries.remove(key(key, PATIENT, id));
+        }
+        entries.remove(key(digits(phone), PATIENT, id));
+    }
+
+    public void putDoctor(Long id, String name, String licenseNumber, String specialty) {
+        for (String key : nameKeys(name)) {
+            entries.put(key(key, DOCTOR, id), new LookupMatch(DOCTOR, id, name, specialty, "name"));
+        }
+        String license = normalize(licenseNumber);
+        if (!license.isEmpty()) {
+            entries.put(key(license, DOCTOR, id), new LookupMatch(DOCTOR, id, name, specialty, "licenseNumber"));
+        }
+    }
+
+    public void removeDoctor(Long id, String name, String licenseNumber) {
+        for (String key : nameKeys(name)) {
+            entries.remove(key(key, DOCTOR, id));
+        }
+        entries.remove(key(normalize(licenseNumber), DOCTOR, id));
+    }
+
+    // Top matches for a prefix, in key order, one per patient/doctor
+    // type narrows to PATIENT or DOCTOR; null means both
+    public List<LookupMatch> lookup(String prefix, String type, int limit) {
+        List<LookupMatch> matches = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        String text = normalize(prefix);
+        if (!text.isEmpty()) {
+            collect(text, type, limit, matches, seen);
+        }
+        // Phone numbers are keyed by digits, so "555-01" should also find "5550101..."
+        String digits = digits(prefix);
+        if (!digits.isEmpty() && !digits.equals(text) && matches.size() < limit) {
+            collect(digits, type, limit, matches, seen);
+        }
+        return matches;
+    }
+
+    private void collect(String prefix, String type, int limit, List<LookupMatch> matches, Set<String> seen) {
+        for (Map.Entry<String, LookupMatch> entry : entries.subMap(prefix, true, prefix + '\uffff', false).entrySet()) {
+            LookupMatch match = entry.getValue();
+            if (type != null && !type.equals(match.type())) {
+                continue;
+            }
+            // A patient can match on several words of the name - only report them once
+            if (seen.add(match.type() + ':' + match.id())) {
+                matches.add(match);
+                if (matches.size() == limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // The whole name plus every word after the first, so "smi" finds "John Smith"
+    private static List<String> nameKeys(String name) {
+        List<String> keys = new ArrayList<>();
+        String full = normalize(name);
+        if (full.isEmpty()) {
+            return keys;
+        }
+        keys.add(full);
+        for (int i = full.indexOf(' '); i >= 0; i = full.indexOf(' ', i + 1)) {
+            if (i + 1 < full.length()) {
+                keys.add(full.substring(i + 1));
+            }
+        }
+        return keys;
+    }
+
+    private static String key(String value, String type, Long id) {
+        return value + SEPARATOR + type + SEPARATOR + id;
+    }
+
+    // Lower case with runs of whitespace collapsed
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String value) {
+        return value == null ? "" : value.replaceAll("\\D", "");
+    }
+}
@@ -0,0 +1,101 @@
+package com.hms.service;
+
+import com.hms.model.Bill;
+import com.hms.model.BillStatus;
+import com.hms.model.SweepReport;
+import com.hms.repository.BillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Moves PENDING bills whose due date has passed to OVERDUE
+// Works in chunks, each its own short transaction: lock a page of due bills (found via the
+// (status, due_date) index), flip them with one UPDATE, commit - so the bills table is
+// never locked for longer than one chunk takes
+@Service
+public class OverdueBillSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueBillSweeper.class);
+
+    private final BillRepository billRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BillingAggregates billingAggregates;
+    private final int chunkSize;
+
+    // Scheduled and manual runs must not overlap
+    private final ReentrantLock running = new ReentrantLock();
+    private volatile SweepReport lastReport;
+
+    public OverdueBillSweeper(BillRepository billRepository,
+                              TransactionTemplate transactionTemplate,
+                              BillingAggregates billingAggregates,
+                              @Value("${hms.billing.overdue-sweep.chunk-size:500}") int chunkSize) {
+        this.billRepository = billRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.billingAggregates = billingAggregates;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${hms.billing.overdue-sweep.initial-delay-ms:60000}",
+               fixedDelayString = "${hms.billing.overdue-sweep.interval-ms:300000}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    public SweepReport sweep() {
+        running.lock();
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            int updated = 0;
+            int chunks = 0;
+            while (true) {
+                List<Bill> flipped = transactionTemplate.execute(status -> flipChunk(startedAt));
+                if (flipped.isEmpty()) {
+                    break;
+                }
+                chunks++;
+                updated += flipped.size();
+                // Only after commit, so the aggregates never count a rolled-back change
+                for (Bill bill : flipped) {
+                    billingAggregates.statusChanged(bill.getPatient().getId(), BillStatus.PENDING, BillStatus.OVERDUE, bill.getAmount());
+                }
+                if (flipped.size() < chunkSize) {
+                    break;
+                }
+            }
+            SweepReport report = new SweepReport(startedAt, updated, chunks, (System.nanoTime() - start) / 1_000_000);
+            lastReport = report;
+            if (updated > 0) {
+                log.info("Overdue sweep moved {} bills to OVERDUE in {} chunks ({} ms)", updated, chunks, report.durationMillis());
+            } else {
+                log.debug("Overdue sweep found nothing to do ({} ms)", report.durationMillis());
+            }
+            return report;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    public SweepReport getLastReport() {
+        return lastReport;
+    }
+
+    // One chunk: row-lock up to chunkSize due bills, then flip exactly those rows
+    private List<Bill> flipChunk(LocalDateTime now) {
+        List<Bill> due = billRepository.lockDueBills(now, PageRequest.ofSize(chunkSize));
+        if (!due.isEmpty()) {
+            billRepository.markOverdue(due.stream().map(Bill::getId).collect(Collectors.toList()));
+        }
+        return due;
+    }
+}
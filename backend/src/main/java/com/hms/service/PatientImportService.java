@@ -0,0 +1,294 @@
+package com.hms.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hms.model.BulkImportResult;
+import com.hms.model.Patient;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientText;
+import com.hms.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Bulk patient registration - reads the upload as a stream and commits it in chunks
+// so a million-row file never sits in memory and one bad row doesn't sink the batch
+@Service
+public class PatientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    // Expected CSV column order (first line is a header and is skipped)
+    private static final int CSV_COLUMNS = 5;
+
+    private final PatientRepository patientRepository;
+    private final PatientSearchIndex patientSearchIndex;
+    private final LookupIndex lookupIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader patientReader;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public PatientImportService(PatientRepository patientRepository,
+                                PatientSearchIndex patientSearchIndex,
+                                LookupIndex lookupIndex,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${hms.bulk.chunk-size:500}") int chunkSize) {
+        this.patientRepository = patientRepository;
+        this.patientSearchIndex = patientSearchIndex;
+        this.lookupIndex = lookupIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.patientReader = objectMapper.readerFor(PatientDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    // A row waiting to be written, with its position in the upload for error reporting
+    private record PendingRow(int row, PatientDTO patient) {
+    }
+
+    // JSON array of patients - elements are bound one at a time
+    // An element that can't be bound (not an object, wrong types, bad date) is reported
+    // like an unreadable CSV row; broken JSON syntax can't be resynchronised, so it is
+    // reported against the element it is in and the rows before it are still imported
+    public BulkImportResult importJson(InputStream in) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (JsonParseException e) {
+                throw new ImportFormatException("Expected a JSON array of patients: " + e.getOriginalMessage());
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new ImportFormatException("Expected a JSON array of patients");
+            }
+            // The element being read - also what a syntax error is reported against
+            int row = 1;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken(), row++) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        result.setReceived(result.getReceived() + 1);
+                        result.addError(row, null, "Unreadable row: expected a patient object but got " + token);
+                        continue;
+                    }
+                    // Read as a tree first so a binding error leaves the parser after this element
+                    JsonNode element = parser.readValueAsTree();
+                    PatientDTO patient;
+                    try {
+                        patient = patientReader.readValue(element);
+                    } catch (JsonMappingException e) {
+                        result.setReceived(result.getReceived() + 1);
+                        result.addError(row, textOf(element, "email"), "Unreadable row: " + e.getOriginalMessage());
+                        continue;
+                    }
+                    chunk.add(new PendingRow(row, patient));
+                    if (chunk.size() == chunkSize) {
+                        writeChunk(chunk, result);
+                    }
+                }
+            } catch (JsonParseException e) {
+                result.setReceived(result.getReceived() + 1);
+                result.addError(row, null, "Malformed JSON, the rest of the upload was skipped: " + e.getOriginalMessage());
+            }
+        }
+        writeChunk(chunk, result);
+        return result;
+    }
+
+    // CSV with header: name,email,phone,dateOfBirth,medicalHistory
+    public BulkImportResult importCsv(InputStream in) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                PatientDTO patient;
+                try {
+                    patient = parseCsvLine(line);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    result.setReceived(result.getReceived() + 1);
+                    result.addError(row, null, "Unreadable row: " + e.getMessage());
+                    continue;
+                }
+                chunk.add(new PendingRow(row, patient));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, result);
+                }
+            }
+        }
+        writeChunk(chunk, result);
+        return result;
+    }
+
+    // Validates a chunk in memory, checks emails with one query, then inserts it
+    // as a single batched transaction. Clears the chunk when done.
+    // With open-in-view off there is no persistence context outside these transactions,
+    // so the imported entities are let go when each chunk commits
+    private void writeChunk(List<PendingRow> chunk, BulkImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        result.setReceived(result.getReceived() + chunk.size());
+
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+        Set<String> seenEmails = new HashSet<>();
+        for (PendingRow pending : chunk) {
+            PatientDTO patient = pending.patient();
+            if (isBlank(patient.getName()) || isBlank(patient.getEmail()) || isBlank(patient.getPhone())) {
+                result.addError(pending.row(), patient.getEmail(), "Name, email and phone are required");
+            } else if (!seenEmails.add(patient.getEmail())) {
+                result.addError(pending.row(), patient.getEmail(), "Duplicate email in upload");
+            } else {
+                valid.add(pending);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            Set<String> existing = patientRepository.findExistingEmails(seenEmails);
+            if (!existing.isEmpty()) {
+                List<PendingRow> fresh = new ArrayList<>(valid.size());
+                for (PendingRow pending : valid) {
+                    if (existing.contains(pending.patient().getEmail())) {
+                        result.addError(pending.row(), pending.patient().getEmail(), "Email already registered");
+                    } else {
+                        fresh.add(pending);
+                    }
+                }
+                valid = fresh;
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            List<Patient> entities = valid.stream().map(p -> toPatient(p.patient())).collect(Collectors.toList());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    patientRepository.saveAll(entities);
+                    patientRepository.flush();
+                });
+                result.setImported(result.getImported() + entities.size());
+                patientSearchIndex.addAll(entities.stream().map(PatientText::of).collect(Collectors.toList()));
+                entities.forEach(p -> lookupIndex.putPatient(p.getId(), p.getName(), p.getPhone()));
+            } catch (DataIntegrityViolationException e) {
+                // Something slipped past the pre-checks (e.g. a concurrent registration)
+                // so fall back to row-by-row to find the culprit and keep the rest
+                log.warn("Bulk chunk of {} rows failed, retrying row by row: {}", entities.size(), e.getMostSpecificCause().getMessage());
+                for (PendingRow pending : valid) {
+                    insertSingle(pending, result);
+                }
+            }
+        }
+
+        chunk.clear();
+    }
+
+    private void insertSingle(PendingRow pending, BulkImportResult result) {
+        try {
+            Patient saved = transactionTemplate.execute(status -> patientRepository.saveAndFlush(toPatient(pending.patient())));
+            result.setImported(result.getImported() + 1);
+            patientSearchIndex.add(PatientText.of(saved));
+            lookupIndex.putPatient(saved.getId(), saved.getName(), saved.getPhone());
+        } catch (DataIntegrityViolationException e) {
+            result.addError(pending.row(), pending.patient().getEmail(), "Rejected by database: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static Patient toPatient(PatientDTO dto) {
+        Patient patient = new Patient();
+        patient.setName(dto.getName());
+        patient.setEmail(dto.getEmail());
+        patient.setPhone(dto.getPhone());
+        patient.setDateOfBirth(dto.getDateOfBirth());
+        patient.setMedicalHistory(dto.getMedicalHistory());
+        return patient;
+    }
+
+    private static PatientDTO parseCsvLine(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() < 3 || fields.size() > CSV_COLUMNS) {
+            throw new IllegalArgumentException("expected " + CSV_COLUMNS + " columns but got " + fields.size());
+        }
+        PatientDTO patient = new PatientDTO();
+        patient.setName(fields.get(0));
+        patient.setEmail(fields.get(1));
+        patient.setPhone(fields.get(2));
+        if (fields.size() > 3 && !fields.get(3).isBlank()) {
+            patient.setDateOfBirth(LocalDate.parse(fields.get(3).trim()));
+        }
+        if (fields.size() > 4 && !fields.get(4).isEmpty()) {
+            patient.setMedicalHistory(fields.get(4));
+        }
+        return patient;
+    }
+
+    // Minimal CSV splitter - handles quoted fields with commas and "" escapes on a single line
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String textOf(JsonNode element, String field) {
+        JsonNode value = element.get(field);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,268 @@
+package com.hms.service;
+
+import com.hms.model.PatientText;
+import com.hms.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory inverted index over patient name, email, phone and medical history
+// Each term maps to a sorted array of patient ids plus which fields the term came from,
+// so a search is a handful of array lookups instead of a LIKE '%x%' table scan
+// Built at startup and kept current by HospitalService and PatientImportService
+@Component
+public class PatientSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    // Field flags stored per posting, and what a match in each field is worth when ranking
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE = 4;
+    private static final int HISTORY = 8;
+
+    private final PatientRepository patientRepository;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PatientSearchIndex(PatientRepository patientRepository) {
+        this.patientRepository = patientRepository;
+    }
+
+    // Runs after DataInitializer, so the sample data is included
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            int indexed = 0;
+            try (Stream<PatientText> patients = patientRepository.streamAllText()) {
+                for (PatientText patient : (Iterable<PatientText>) patients::iterator) {
+                    addTerms(patient);
+                    indexed++;
+                }
+            }
+            log.info("Patient search index built: {} patients, {} terms", indexed, postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(PatientText patient) {
+        lock.writeLock().lock();
+        try {
+            addTerms(patient);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<PatientText> patients) {
+        lock.writeLock().lock();
+        try {
+            for (PatientText patient : patients) {
+                addTerms(patient);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Takes the values the patient had before the change, so no per-patient term list is kept
+    public void replace(PatientText before, PatientText after) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(before);
+            addTerms(after);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(PatientText patient) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(patient);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of patients matching every term of the query, best match first
+    // Ranking: name hits count most, then email/phone, then medical history
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null) {
+                    return Collections.emptyList();
+                }
+            }
+            // Drive the intersection from the rarest term
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            Postings rarest = lists[0];
+
+            // Min-heap on score keeps the best limit candidates
+            PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1,
+                    (a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(b[0], a[0]));
+            for (int i = 0; i < rarest.size; i++) {
+                long id = rarest.ids[i];
+                long score = weight(rarest.fields[i]);
+                for (int t = 1; t < lists.length && score > 0; t++) {
+                    int fields = lists[t].fieldsOf(id);
+                    score = fields == 0 ? 0 : score + weight(fields);
+                }
+                if (score > 0) {
+                    best.offer(new long[] {id, score});
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            Long[] ranked = new Long[best.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = best.poll()[0];
+            }
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addTerms(PatientText patient) {
+        for (Map.Entry<String, Integer> term : terms(patient).entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(patient.id(), term.getValue());
+        }
+    }
+
+    private void removeTerms(PatientText patient) {
+        for (String term : terms(patient).keySet()) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(patient.id()) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // Every term of the patient with the fields it appears in
+    private static Map<String, Integer> terms(PatientText patient) {
+        Map<String, Integer> terms = new HashMap<>();
+        collect(terms, patient.name(), NAME);
+        collect(terms, patient.email(), EMAIL);
+        collect(terms, patient.phone(), PHONE);
+        collect(terms, patient.medicalHistory(), HISTORY);
+        // Phone numbers are also indexed as plain digits so "5550101" finds "555-0101"
+        if (patient.phone() != null) {
+            String digits = patient.phone().replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                terms.merge(digits, PHONE, (a, b) -> a | b);
+            }
+        }
+        return terms;
+    }
+
+    private static void collect(Map<String, Integer> terms, String text, int field) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    // Lower-cased runs of letters and digits
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static long weight(int fields) {
+        long weight = 0;
+        if ((fields & NAME) != 0) {
+            weight += 8;
+        }
+        if ((fields & (EMAIL | PHONE)) != 0) {
+            weight += 4;
+        }
+        if ((fields & HISTORY) != 0) {
+            weight += 1;
+        }
+        return weight;
+    }
+
+    // Posting list for one term - patient ids kept sorted, with the matching field flags
+    // Ids come from a sequence, so new patients almost always append at the end
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        void add(long id, int fieldFlags) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                fields[at] |= (byte) fieldFlags;
+                return;
+            }
+            int insert = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            System.arraycopy(fields, insert, fields, insert + 1, size - insert);
+            ids[insert] = id;
+            fields[insert] = (byte) fieldFlags;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(fields, at + 1, fields, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        int fieldsOf(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            return at >= 0 ? fields[at] : 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hms.service;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Read-through over a Spring cache that does the database load outside the cache's own
+// locking - Cache.get(key, loader) runs the loader inside Caffeine's per-key compute, which
+// holds a map bin lock (blocking other keys in the bin, and pinning a virtual thread's
+// carrier) for the whole query
+//
+// Writers invalidate instead of putting, and every invalidation bumps a generation. A load
+// that overlapped one may have read the old row, so after storing its result the reader
+// checks the generation and takes the entry out again if it moved. Either that check sees
+// the writer's bump, or the writer's evict (which comes after its bump) lands after the
+// reader's put - a stale entry can't outlive the write.
+final class ReadThroughCache {
+
+    private final Cache cache;
+    // One counter per cache rather than per key - writes are rare, and it stays bounded
+    private final AtomicLong generation = new AtomicLong();
+
+    ReadThroughCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(Object key, Supplier<T> loader) {
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        long stamp = generation.get();
+        T loaded = loader.get();
+        cache.putIfAbsent(key, loaded);
+        if (generation.get() != stamp) {
+            cache.evict(key);
+        }
+        return loaded;
+    }
+
+    // Call after the write has committed
+    void evict(Object key) {
+        generation.incrementAndGet();
+        cache.evict(key);
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+}
@@ -0,0 +1,14 @@
+package com.hms.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when the write-behind queue already holds its limit of appointments - surfaces
+// as 503 so callers retry later instead of growing the queue without bound
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UpdateQueueFullException extends RuntimeException {
+
+    public UpdateQueueFullException(String message) {
+        super(message);
+    }
+}
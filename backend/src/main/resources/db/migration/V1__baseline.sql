@@ -0,0 +1,78 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it from the original entities
+-- (IDENTITY ids, string status columns, no version columns, no secondary indexes)
+-- Databases created that way are baselined at this version and start from V2, so nothing
+-- added since belongs here. Hibernate named the constraints itself (UK.../FK... hashes),
+-- so later migrations must not refer to constraint names from this file
+
+create table doctors (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    specialty varchar(255) not null,
+    license_number varchar(255),
+    years_of_experience integer,
+    primary key (id),
+    constraint uk_doctors_license_number unique (license_number)
+);
+
+create table patients (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    email varchar(255) not null,
+    phone varchar(255) not null,
+    date_of_birth date,
+    medical_history text,
+    primary key (id),
+    constraint uk_patients_email unique (email)
+);
+
+create table appointments (
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    appointment_date_time timestamp(6) not null,
+    status varchar(255) not null,
+    reason_for_visit varchar(255),
+    notes text,
+    primary key (id),
+    constraint fk_appointments_patient foreign key (patient_id) references patients (id),
+    constraint fk_appointments_doctor foreign key (doctor_id) references doctors (id)
+);
+
+create table bills (
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    amount numeric(10, 2) not null,
+    status varchar(255) not null,
+    bill_date timestamp(6) not null,
+    due_date timestamp(6),
+    description varchar(255),
+    payment_date timestamp(6),
+    primary key (id),
+    constraint fk_bills_patient foreign key (patient_id) references patients (id)
+);
+
+create table roles (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    primary key (id),
+    constraint uk_roles_name unique (name)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    enabled boolean not null,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id),
+    constraint fk_user_roles_user foreign key (user_id) references users (id),
+    constraint fk_user_roles_role foreign key (role_id) references roles (id)
+);
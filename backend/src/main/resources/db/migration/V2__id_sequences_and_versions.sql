@@ -0,0 +1,20 @@
+-- Pooled id sequences and optimistic-lock version columns for the four domain tables
+
+-- Ids come from sequences Hibernate reserves 50 at a time, so inserts can be batched.
+-- Hibernate treats each value it fetches as the top of a block of 50, so every sequence
+-- restarts 50 past the highest existing id - the first block then begins at max(id) + 1.
+-- The old IDENTITY columns stay; they accept the ids Hibernate now supplies.
+create sequence doctors_seq start with 50 increment by 50;
+create sequence patients_seq start with 50 increment by 50;
+create sequence appointments_seq start with 50 increment by 50;
+create sequence bills_seq start with 50 increment by 50;
+alter sequence doctors_seq restart with (select coalesce(max(id), 0) + 50 from doctors);
+alter sequence patients_seq restart with (select coalesce(max(id), 0) + 50 from patients);
+alter sequence appointments_seq restart with (select coalesce(max(id), 0) + 50 from appointments);
+alter sequence bills_seq restart with (select coalesce(max(id), 0) + 50 from bills);
+
+-- @Version columns - existing rows start at 0, like rows Hibernate inserts
+alter table doctors add column version bigint default 0 not null;
+alter table patients add column version bigint default 0 not null;
+alter table appointments add column version bigint default 0 not null;
+alter table bills add column version bigint default 0 not null;
@@ -0,0 +1,37 @@
+-- Status columns become one-byte enum ordinals (see AppointmentStatus / BillStatus)
+-- instead of VARCHAR(255), and every hot query gets an index that matches it
+
+-- appointments.status: SCHEDULED=0, COMPLETED=1, CANCELLED=2
+-- Unknown values map to NULL and make the NOT NULL step fail rather than being guessed
+alter table appointments add column status_code tinyint;
+update appointments set status_code = case upper(status)
+    when 'SCHEDULED' then 0
+    when 'COMPLETED' then 1
+    when 'CANCELLED' then 2
+end;
+alter table appointments drop column status;
+alter table appointments alter column status_code rename to status;
+alter table appointments alter column status set not null;
+
+-- bills.status: PENDING=0, PAID=1, OVERDUE=2, CANCELLED=3
+alter table bills add column status_code tinyint;
+update bills set status_code = case upper(status)
+    when 'PENDING' then 0
+    when 'PAID' then 1
+    when 'OVERDUE' then 2
+    when 'CANCELLED' then 3
+end;
+alter table bills drop column status;
+alter table bills alter column status_code rename to status;
+alter table bills alter column status set not null;
+
+-- Double-booking check, availability refresh, findByDoctorId
+create index idx_appointments_doctor_time on appointments (doctor_id, appointment_date_time);
+-- findByPatientId
+create index idx_appointments_patient_time on appointments (patient_id, appointment_date_time);
+-- Availability index startup load (everything from today on)
+create index idx_appointments_time on appointments (appointment_date_time);
+-- findByPatientId on bills, per-patient billing history
+create index idx_bills_patient_bill_date on bills (patient_id, bill_date);
+-- Overdue sweep: PENDING and due before now
+create index idx_bills_status_due_date on bills (status, due_date);
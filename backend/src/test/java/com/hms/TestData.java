@@ -0,0 +1,37 @@
+package com.hms;
+
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+
+// Create requests for the doctors and patients tests hang their appointments and bills on
+// License numbers and emails are unique per call - the Spring tests share one database
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static DoctorDTO doctor() {
+        return doctor("Dr. Test");
+    }
+
+    public static DoctorDTO doctor(String name) {
+        DoctorDTO dto = new DoctorDTO();
+        dto.setName(name);
+        dto.setSpecialty("Testing");
+        dto.setLicenseNumber("T" + System.nanoTime());
+        dto.setYearsOfExperience(5);
+        return dto;
+    }
+
+    public static PatientDTO patient() {
+        return patient("Test Patient");
+    }
+
+    public static PatientDTO patient(String name) {
+        PatientDTO dto = new PatientDTO();
+        dto.setName(name);
+        dto.setEmail(System.nanoTime() + "@patient.test");
+        dto.setPhone("555-0100");
+        return dto;
+    }
+}
@@ -0,0 +1,48 @@
+package com.hms.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database created by the old ddl-auto=update - V1's schema with rows in it but no Flyway
+// history - gets baselined at V1 and must come out of V2+ usable by the current entities
+class BaselineMigrationTest {
+
+    @Test
+    void legacyDatabaseIsBaselinedAndMigrated() {
+        String url = "jdbc:h2:mem:baseline-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbc.execute("runscript from 'classpath:/db/migration/V1__baseline.sql'");
+        jdbc.update("insert into doctors (name, specialty, license_number) values ('Dr. Legacy', 'Cardiology', 'LEG-1')");
+        jdbc.update("insert into patients (id, name, email, phone) values (120, 'Legacy Patient', 'legacy@old.test', '555-0120')");
+        jdbc.update("insert into appointments (patient_id, doctor_id, appointment_date_time, status) "
+                + "values (120, 1, timestamp '2024-05-01 10:00:00', 'CANCELLED')");
+        jdbc.update("insert into bills (patient_id, amount, status, bill_date, due_date) "
+                + "values (120, 80.00, 'overdue', timestamp '2024-05-01 10:00:00', timestamp '2024-05-31 10:00:00')");
+
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // Statuses become ordinals, case-insensitively
+        assertThat(jdbc.queryForObject("select status from appointments", Integer.class)).isEqualTo(2);
+        assertThat(jdbc.queryForObject("select status from bills", Integer.class)).isEqualTo(2);
+        // Existing rows get a version, so optimistic locking and the ETag queries work on them
+        for (String table : new String[] {"doctors", "patients", "appointments", "bills"}) {
+            assertThat(jdbc.queryForObject("select version from " + table, Long.class)).as(table).isZero();
+        }
+        // Hibernate hands out ids from (fetched value - 49) upwards, which has to clear the old rows
+        long next = jdbc.queryForObject("select next value for patients_seq", Long.class);
+        assertThat(next - 49).isGreaterThan(120);
+        assertThat(jdbc.queryForObject("select next value for doctors_seq", Long.class) - 49).isGreaterThan(1);
+        // The indexes V3 adds over the converted column are in place
+        assertThat(jdbc.queryForObject("select count(*) from information_schema.indexes "
+                + "where index_name = 'IDX_BILLS_STATUS_DUE_DATE'", Integer.class)).isPositive();
+    }
+}
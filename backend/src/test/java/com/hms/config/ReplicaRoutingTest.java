@@ -0,0 +1,179 @@
+package com.hms.config;
+
+import com.hms.model.AppointmentDTO;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import com.hms.service.BookingConflictException;
+import com.hms.service.HospitalService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The replica is a separate in-memory database that only sees the primary's data when the
+// test copies it over - everything written since the last copy is "replication lag", so a
+// read that lands on the wrong side shows up as a missing row
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "hms.datasource.replica.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replicas"})
+class ReplicaRoutingTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    // Startup reads (index rebuilds) already go to the replica, so it needs the schema up front
+    static {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TempDir
+    private Path tempDir;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private DoctorDTO doctor;
+    private PatientDTO patient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate((DataSource) routingDataSource.getResolvedDataSources().get(0));
+        doctor = hospitalService.createDoctor(doctor("Dr. Routing " + System.nanoTime()));
+        patient = hospitalService.createPatient(patient("Routing Patient " + System.nanoTime()));
+        replicate();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() throws Exception {
+        PatientDTO created = hospitalService.createPatient(patient("Lagging Patient"));
+
+        assertThatThrownBy(() -> hospitalService.getPatientById(created.getId()))
+                .hasMessage("Patient not found");
+
+        replicate();
+        assertThat(hospitalService.getPatientById(created.getId()).getName()).isEqualTo("Lagging Patient");
+    }
+
+    @Test
+    void readAfterWriteInTheSameRequestStaysOnThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(2000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<PatientDTO> read = new AtomicReference<>();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/patients"), response, (req, res) -> {
+            PatientDTO created = hospitalService.createPatient(patient("Same Request Patient"));
+            read.set(hospitalService.getPatientById(created.getId()));
+        });
+
+        assertThat(read.get().getName()).isEqualTo("Same Request Patient");
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE)).isNotNull();
+    }
+
+    @Test
+    void clientInsideTheLagWindowReadsFromThePrimary() throws Exception {
+        PatientDTO created = hospitalService.createPatient(patient("Next Request Patient"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients/" + created.getId());
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, String.valueOf(System.currentTimeMillis() + 5000)));
+        AtomicReference<PatientDTO> read = new AtomicReference<>();
+
+        new ReadYourWritesFilter(2000).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> read.set(hospitalService.getPatientById(created.getId())));
+
+        assertThat(read.get().getName()).isEqualTo("Next Request Patient");
+    }
+
+    @Test
+    void doubleBookingCheckRunsOnThePrimary() {
+        LocalDateTime start = LocalDateTime.now().plusYears(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        hospitalService.createAppointment(appointment(start));
+
+        // The first booking hasn't reached the replica - only the primary can see the clash
+        assertThatThrownBy(() -> hospitalService.createAppointment(appointment(start.plusMinutes(10))))
+                .isInstanceOf(BookingConflictException.class);
+    }
+
+    @Test
+    void bookingRequestWritesToThePrimaryAfterReadOnlyLookups() throws Exception {
+        long primaryBefore = countAppointments(primary);
+        long replicaBefore = countAppointments(replica);
+        String body = "{\"patient\":{\"id\":" + patient.getId() + "},\"doctor\":{\"id\":" + doctor.getId() + "},"
+                + "\"appointmentDateTime\":\"" + LocalDateTime.now().plusYears(2).withHour(14).withMinute(0).withSecond(0).withNano(0) + "\","
+                + "\"status\":\"SCHEDULED\",\"reasonForVisit\":\"Routing\"}";
+
+        // The patient and doctor lookups run read-only first; the insert must still reach the primary
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE));
+
+        assertThat(countAppointments(primary)).isEqualTo(primaryBefore + 1);
+        assertThat(countAppointments(replica)).isEqualTo(replicaBefore);
+    }
+
+    // Copies the primary over the replica - the only way data gets there
+    private void replicate() throws Exception {
+        String script = tempDir.resolve("snapshot.sql").toString().replace('\\', '/');
+        primary.execute("script to '" + script + "'");
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+            statement.execute("runscript from '" + script + "'");
+        }
+    }
+
+    private static long countAppointments(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select count(*) from appointments", Long.class);
+    }
+
+    private AppointmentDTO appointment(LocalDateTime start) {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctor.getId());
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(start);
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Routing");
+        return dto;
+    }
+}
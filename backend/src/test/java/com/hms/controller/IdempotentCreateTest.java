@@ -0,0 +1,83 @@
+package com.hms.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A client whose POST timed out retrying many times at once, over real HTTP - every
+// attempt carries the same Idempotency-Key, and exactly one row may come out of it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class IdempotentCreateTest {
+
+    private static final int RETRIES = 16;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRetriesWithOneKeyInsertOnePatient() throws Exception {
+        String email = UUID.randomUUID() + "@retry.test";
+        String body = "{\"name\":\"Retry Patient\",\"email\":\"" + email + "\",\"phone\":\"555-0150\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/patients"))
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpClient client = HttpClient.newHttpClient();
+
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(RETRIES);
+        List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < RETRIES; i++) {
+                responses.add(pool.submit(() -> {
+                    go.await();
+                    return client.send(request, HttpResponse.BodyHandlers.ofString());
+                }));
+            }
+            go.countDown();
+
+            Set<String> bodies = new HashSet<>();
+            int firstRuns = 0;
+            for (Future<HttpResponse<String>> future : responses) {
+                HttpResponse<String> response = future.get(60, TimeUnit.SECONDS);
+                assertThat(response.statusCode()).isEqualTo(200);
+                bodies.add(response.body());
+                if ("false".equals(response.headers().firstValue("Idempotent-Replayed").orElse(null))) {
+                    firstRuns++;
+                }
+            }
+            assertThat(bodies).hasSize(1);
+            assertThat(firstRuns).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Long rows = jdbcTemplate.queryForObject("select count(*) from patients where email = ?", Long.class, email);
+        assertThat(rows).isEqualTo(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.model.BillDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import com.hms.service.HospitalService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// NDJSON means exactly one JSON object per line - no separator Jackson adds between root
+// values (a leading space on every line after the first) and no blank lines
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NdjsonExportTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void billExportWritesOneObjectPerLine() throws Exception {
+        PatientDTO patient = hospitalService.createPatient(patient());
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(hospitalService.createBill(bill(patient.getId())).getId());
+        }
+
+        MvcResult started = mockMvc.perform(get("/api/bills/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+        String body = started.getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        Set<Long> exported = new HashSet<>();
+        for (String line : body.split("\n")) {
+            assertThat(line).startsWith("{").endsWith("}");
+            JsonNode row = objectMapper.readTree(line);
+            exported.add(row.get("id").asLong());
+        }
+        assertThat(exported).containsAll(created);
+    }
+
+    private static BillDTO bill(Long patientId) {
+        BillDTO dto = new BillDTO();
+        dto.setPatient(new PatientSummary(patientId, null, null, null, null));
+        dto.setAmount(new BigDecimal("30.00"));
+        dto.setStatus("PENDING");
+        dto.setDescription("Export");
+        return dto;
+    }
+}
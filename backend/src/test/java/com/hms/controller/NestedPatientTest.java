@@ -0,0 +1,160 @@
+package com.hms.controller;
+
+import com.hms.model.AppointmentDTO;
+import com.hms.model.BillDTO;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import com.hms.service.HospitalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Appointments and bills carry a patient reference, not the patient's whole record - and
+// since they show the patient's (and doctor's) details, their ETags follow those too
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NestedPatientTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PatientDTO patient;
+    private DoctorDTO doctor;
+
+    @BeforeEach
+    void setUp() {
+        // A history to leave out of the nested copies
+        PatientDTO withHistory = patient("Nested Patient " + System.nanoTime());
+        withHistory.setMedicalHistory("Asthma since childhood, penicillin allergy");
+        patient = hospitalService.createPatient(withHistory);
+        doctor = hospitalService.createDoctor(doctor());
+    }
+
+    @Test
+    void appointmentNestsThePatientWithoutMedicalHistory() throws Exception {
+        AppointmentDTO appointment = hospitalService.createAppointment(appointment());
+
+        mockMvc.perform(get("/api/appointments/" + appointment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patient.id").value(patient.getId()))
+                .andExpect(jsonPath("$.patient.name").value(patient.getName()))
+                .andExpect(jsonPath("$.patient.medicalHistory").doesNotExist());
+    }
+
+    @Test
+    void billNestsThePatientWithoutMedicalHistory() throws Exception {
+        BillDTO bill = hospitalService.createBill(bill());
+
+        mockMvc.perform(get("/api/bills/" + bill.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patient.id").value(patient.getId()))
+                .andExpect(jsonPath("$.patient.name").value(patient.getName()))
+                .andExpect(jsonPath("$.patient.medicalHistory").doesNotExist());
+    }
+
+    @Test
+    void editingThePatientOrDoctorChangesTheAppointmentETag() throws Exception {
+        AppointmentDTO appointment = hospitalService.createAppointment(appointment());
+        String url = "/api/appointments/" + appointment.getId();
+        String etag = etagOf(url);
+
+        patient.setName("Renamed " + patient.getName());
+        hospitalService.updatePatient(patient.getId(), patient);
+        String afterPatientEdit = refetched(url, etag, "$.patient.name", patient.getName());
+
+        doctor.setName("Dr. Renamed");
+        hospitalService.updateDoctor(doctor.getId(), doctor);
+        refetched(url, afterPatientEdit, "$.doctor.name", "Dr. Renamed");
+    }
+
+    @Test
+    void editingThePatientChangesTheBillETag() throws Exception {
+        BillDTO bill = hospitalService.createBill(bill());
+        String url = "/api/bills/" + bill.getId();
+        String etag = etagOf(url);
+
+        patient.setName("Renamed " + patient.getName());
+        hospitalService.updatePatient(patient.getId(), patient);
+        refetched(url, etag, "$.patient.name", patient.getName());
+    }
+
+    @Test
+    void patientETagComesFromTheBodyItIsSentWith() throws Exception {
+        String url = "/api/patients/" + patient.getId();
+        String etag = etagOf(url);
+
+        // The row moves on without going through the service, so the cache keeps the old DTO
+        // while the version probe already reads the new version
+        jdbcTemplate.update("update patients set version = version + 1 where id = ?", patient.getId());
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", etag))
+                .andExpect(jsonPath("$.name").value(patient.getName()))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        // A client holding the new version gets its 304 from the probe
+        mockMvc.perform(get(url).header("If-None-Match", "\"" + (Long.parseLong(etag.replace("\"", "")) + 1) + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+        // Unchanged, the tag still validates
+        mockMvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isNotModified());
+        return etag;
+    }
+
+    // The old tag no longer matches, so the client gets the new body (and a new tag)
+    private String refetched(String url, String staleEtag, String path, String expected) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).header("If-None-Match", staleEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(path).value(expected))
+                .andReturn();
+        return result.getResponse().getHeader("ETag");
+    }
+
+    private AppointmentDTO appointment() {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctor.getId());
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(LocalDateTime.now().plusYears(6).withHour(11).withMinute(0).withSecond(0).withNano(0));
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Follow-up");
+        return dto;
+    }
+
+    private BillDTO bill() {
+        BillDTO dto = new BillDTO();
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setAmount(new BigDecimal("80.00"));
+        dto.setStatus("PENDING");
+        dto.setDescription("Follow-up");
+        return dto;
+    }
+}
@@ -0,0 +1,113 @@
+package com.hms.service;
+
+import com.hms.model.AppointmentDTO;
+import com.hms.model.AppointmentUpdate;
+import com.hms.model.AppointmentUpdateResult;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+// A long max delay so updates submitted back to back share one batch
+@SpringBootTest(properties = "hms.appointments.write-behind.max-delay-ms=300")
+@ActiveProfiles("test")
+class AppointmentWriteBehindTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private AvailabilityIndex availabilityIndex;
+
+    private DoctorDTO doctor;
+    private PatientDTO patient;
+    private LocalDateTime nextStart = LocalDateTime.now().plusYears(4).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        doctor = hospitalService.createDoctor(doctor());
+        patient = hospitalService.createPatient(patient());
+    }
+
+    @Test
+    void failingRowDoesNotRejectTheRestOfItsBatch() throws Exception {
+        AppointmentDTO first = book();
+        AppointmentDTO second = book();
+        AppointmentDTO third = book();
+        // Stands in for any row-level failure the batch only finds out about at commit time
+        jdbcTemplate.execute("alter table appointments add constraint no_poison_" + second.getId()
+                + " check (id <> " + second.getId() + " or notes is null or notes <> 'poison')");
+
+        CompletableFuture<AppointmentUpdateResult> ok1 = update(first, "fine");
+        CompletableFuture<AppointmentUpdateResult> bad = update(second, "poison");
+        CompletableFuture<AppointmentUpdateResult> ok2 = update(third, "also fine");
+
+        assertThat(ok1.get(10, TimeUnit.SECONDS).notes()).isEqualTo("fine");
+        assertThat(ok2.get(10, TimeUnit.SECONDS).notes()).isEqualTo("also fine");
+        assertThatThrownBy(() -> bad.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(notesOf(first)).isEqualTo("fine");
+        assertThat(notesOf(second)).isNull();
+        assertThat(notesOf(third)).isEqualTo("also fine");
+    }
+
+    @Test
+    void failedAvailabilityRefreshKeepsTheCancellationAndTheFlusher() throws Exception {
+        AppointmentDTO cancelled = book();
+        AppointmentDTO later = book();
+        doThrow(new IllegalStateException("index unavailable"))
+                .when(availabilityIndex).refreshDay(eq(doctor.getId()), any(LocalDate.class));
+
+        AppointmentUpdateResult result = hospitalService
+                .updateAppointment(cancelled.getId(), new AppointmentUpdate("CANCELLED", null))
+                .get(10, TimeUnit.SECONDS);
+        assertThat(result.status()).isEqualTo("CANCELLED");
+
+        // The flusher is still there for the next batch
+        assertThat(update(later, "after the failure").get(10, TimeUnit.SECONDS).notes())
+                .isEqualTo("after the failure");
+    }
+
+    private CompletableFuture<AppointmentUpdateResult> update(AppointmentDTO appointment, String notes) {
+        return hospitalService.updateAppointment(appointment.getId(), new AppointmentUpdate(null, notes));
+    }
+
+    private String notesOf(AppointmentDTO appointment) {
+        return jdbcTemplate.queryForObject("select notes from appointments where id = ?", String.class, appointment.getId());
+    }
+
+    private AppointmentDTO book() {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctor.getId());
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(nextStart);
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Write-behind");
+        nextStart = nextStart.plusHours(1);
+        return hospitalService.createAppointment(dto);
+    }
+}
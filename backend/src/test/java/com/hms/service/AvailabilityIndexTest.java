@@ -0,0 +1,115 @@
+package com.hms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.config.CacheConfig;
+import com.hms.model.AvailableSlot;
+import com.hms.model.BookedSlot;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.BillRepository;
+import com.hms.repository.DoctorRepository;
+import com.hms.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A clinic open around the clock, so an appointment late in the evening takes the
+// first slot of the next day
+class AvailabilityIndexTest {
+
+    private static final long DOCTOR = 1L;
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 14);
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final List<BookedSlot> booked = new ArrayList<>();
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(appointmentRepository.findBookedSlots(anyCollection(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            LocalDateTime to = invocation.getArgument(2);
+            return booked.stream().filter(slot -> slot.start().isAfter(from) && slot.start().isBefore(to)).toList();
+        });
+        index = new AvailabilityIndex(mock(DoctorRepository.class), appointmentRepository, "00:00", "23:30", 30);
+        index.putDoctor(DOCTOR, "Dr. Night", "Emergency");
+    }
+
+    @Test
+    void cancellingALateAppointmentFreesTheNextMorningToo() {
+        LocalDateTime late = DAY.atTime(23, 45);
+        booked.add(new BookedSlot(DOCTOR, late));
+        index.book(DOCTOR, late);
+        assertThat(firstFreeOn(DAY.plusDays(1))).isEqualTo(DAY.plusDays(1).atTime(0, 30));
+
+        booked.clear();
+        index.refreshDay(DOCTOR, DAY);
+
+        assertThat(firstFreeOn(DAY.plusDays(1))).isEqualTo(DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void refreshKeepsBookingsOfTheNextDay() {
+        LocalDateTime late = DAY.atTime(23, 45);
+        LocalDateTime nextMorning = DAY.plusDays(1).atTime(0, 30);
+        booked.add(new BookedSlot(DOCTOR, late));
+        booked.add(new BookedSlot(DOCTOR, nextMorning));
+        index.book(DOCTOR, late);
+        index.book(DOCTOR, nextMorning);
+
+        booked.remove(0);
+        index.refreshDay(DOCTOR, DAY);
+
+        assertThat(firstFreeOn(DAY.plusDays(1))).isEqualTo(DAY.plusDays(1).atStartOfDay());
+        assertThat(index.findFree("Emergency", DAY.plusDays(1).atTime(0, 30), DAY.plusDays(1).atTime(1, 0), 1)).isEmpty();
+    }
+
+    @Test
+    void deletingAPatientFreesTheSlotsTheirAppointmentsHeld() {
+        long patientId = 7L;
+        LocalDateTime morning = DAY.atTime(9, 0);
+        LocalDateTime late = DAY.atTime(23, 45);
+        for (LocalDateTime start : List.of(morning, late)) {
+            booked.add(new BookedSlot(DOCTOR, start));
+            index.book(DOCTOR, start);
+        }
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        when(appointmentRepository.findBookedSlotsByPatientId(patientId)).thenReturn(List.copyOf(booked));
+        // The delete cascades to the appointments
+        doAnswer(invocation -> {
+            booked.clear();
+            return null;
+        }).when(patientRepository).deleteById(patientId);
+
+        hospitalService(patientRepository).deletePatient(patientId);
+
+        assertThat(index.findFree("Emergency", morning, morning.plusMinutes(30), 1)).isNotEmpty();
+        // The late appointment's spill into the next morning is gone too
+        assertThat(firstFreeOn(DAY.plusDays(1))).isEqualTo(DAY.plusDays(1).atStartOfDay());
+    }
+
+    private HospitalService hospitalService(PatientRepository patientRepository) {
+        return new HospitalService(mock(DoctorRepository.class), patientRepository, appointmentRepository,
+                mock(BillRepository.class), new ObjectMapper(), new ConcurrentMapCacheManager(CacheConfig.DOCTORS,
+                        CacheConfig.PATIENTS, CacheConfig.DOCTORS_BY_SPECIALTY), new DoctorScheduleLocks(),
+                mock(TransactionTemplate.class), index, mock(PatientSearchIndex.class), mock(LookupIndex.class),
+                mock(BillingAggregates.class), mock(AppointmentWriteBehind.class), 30);
+    }
+
+    private LocalDateTime firstFreeOn(LocalDate day) {
+        List<AvailableSlot> free = index.findFree("Emergency", day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 1);
+        return free.get(0).start();
+    }
+}
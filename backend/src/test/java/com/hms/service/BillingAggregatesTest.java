@@ -0,0 +1,126 @@
+package com.hms.service;
+
+import com.hms.model.BillDTO;
+import com.hms.model.BillStatus;
+import com.hms.model.BillingBalance;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// After every kind of bill write the running aggregates must agree with summing the
+// bills table itself
+@SpringBootTest
+@ActiveProfiles("test")
+class BillingAggregatesTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private OverdueBillSweeper overdueBillSweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PatientDTO patient;
+
+    @BeforeEach
+    void setUp() {
+        patient = hospitalService.createPatient(patient());
+    }
+
+    @Test
+    void addedBillsAreCounted() {
+        hospitalService.createBill(bill("PENDING", "120.00", 30));
+        hospitalService.createBill(bill("PAID", "80.50", 30));
+
+        assertThat(hospitalService.getPatientBalance(patient.getId()).outstanding()).isEqualByComparingTo("120.00");
+        assertMatchesTable();
+    }
+
+    @Test
+    void deletedBillIsTakenOff() {
+        hospitalService.createBill(bill("PENDING", "40.00", 30));
+        BillDTO deleted = hospitalService.createBill(bill("PENDING", "60.00", 30));
+
+        hospitalService.deleteBill(deleted.getId());
+        // Deleting it again (or an id that never existed) changes nothing
+        hospitalService.deleteBill(deleted.getId());
+
+        assertThat(hospitalService.getPatientBalance(patient.getId()).counts().get("PENDING")).isEqualTo(1);
+        assertMatchesTable();
+    }
+
+    @Test
+    void sweptBillMovesFromPendingToOverdue() {
+        hospitalService.createBill(bill("PENDING", "75.25", -1));
+        hospitalService.createBill(bill("PENDING", "20.00", 30));
+
+        overdueBillSweeper.sweep();
+
+        BillingBalance balance = hospitalService.getPatientBalance(patient.getId());
+        assertThat(balance.amounts().get("OVERDUE")).isEqualByComparingTo("75.25");
+        assertThat(balance.amounts().get("PENDING")).isEqualByComparingTo("20.00");
+        assertMatchesTable();
+    }
+
+    @Test
+    void removedPatientTakesTheirBillsOffTheHospitalTotals() {
+        hospitalService.createBill(bill("PENDING", "300.00", 30));
+        hospitalService.createBill(bill("OVERDUE", "45.00", -5));
+
+        hospitalService.deletePatient(patient.getId());
+
+        assertThat(hospitalService.getBillingSummary()).isEqualTo(summed(null));
+        assertThat(summed(patient.getId()).counts().values()).containsOnly(0L);
+    }
+
+    private void assertMatchesTable() {
+        assertThat(hospitalService.getPatientBalance(patient.getId())).isEqualTo(summed(patient.getId()));
+        assertThat(hospitalService.getBillingSummary()).isEqualTo(summed(null));
+    }
+
+    // The same balance built straight from the bills table
+    private BillingBalance summed(Long patientId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Map<String, BigDecimal> amounts = new LinkedHashMap<>();
+        for (BillStatus status : BillStatus.values()) {
+            counts.put(status.name(), 0L);
+            amounts.put(status.name(), BigDecimal.valueOf(0, 2));
+        }
+        String sql = "select status, count(*), sum(amount) from bills"
+                + (patientId != null ? " where patient_id = ?" : "") + " group by status";
+        Object[] args = patientId != null ? new Object[] {patientId} : new Object[0];
+        jdbcTemplate.query(sql, row -> {
+            String status = BillStatus.values()[row.getInt(1)].name();
+            counts.put(status, row.getLong(2));
+            amounts.put(status, row.getBigDecimal(3).setScale(2));
+        }, args);
+        BigDecimal outstanding = amounts.get("PENDING").add(amounts.get("OVERDUE"));
+        return new BillingBalance(patientId, outstanding, counts, amounts);
+    }
+
+    private BillDTO bill(String status, String amount, int dueInDays) {
+        BillDTO dto = new BillDTO();
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setAmount(new BigDecimal(amount));
+        dto.setStatus(status);
+        dto.setBillDate(LocalDateTime.now().minusDays(10));
+        dto.setDueDate(LocalDateTime.now().plusDays(dueInDays));
+        dto.setDescription("Aggregates");
+        return dto;
+    }
+}
@@ -0,0 +1,128 @@
+package com.hms.service;
+
+import com.hms.Application;
+import com.hms.model.AppointmentDTO;
+import com.hms.model.BulkBookingResult;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many clients racing for overlapping slots with one doctor, spread over two application
+// instances on the same database - each instance has its own in-JVM locks, so only the
+// doctor's row lock keeps the bookings apart
+@SpringBootTest(properties = BookingConcurrencyTest.DATABASE)
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    static final String DATABASE = "spring.datasource.url=jdbc:h2:mem:booking-race;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+
+    private static final int CLIENTS = 24;
+
+    private static ConfigurableApplicationContext secondInstance;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startSecondInstance() {
+        secondInstance = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--" + DATABASE);
+    }
+
+    @AfterAll
+    static void stopSecondInstance() {
+        secondInstance.close();
+    }
+
+    @Test
+    void overlappingBookingsForOneDoctorProduceOneAppointment() throws Exception {
+        HospitalService otherInstance = secondInstance.getBean(HospitalService.class);
+        DoctorDTO doctor = hospitalService.createDoctor(doctor());
+        PatientDTO patient = hospitalService.createPatient(patient());
+        // Every start is within 30 minutes of every other, so only one of them can be booked
+        LocalDateTime start = LocalDateTime.now().plusYears(3).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<Boolean>> outcomes = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                HospitalService instance = i % 2 == 0 ? hospitalService : otherInstance;
+                AppointmentDTO request = appointment(patient.getId(), doctor.getId(), start.plusMinutes(i % 15));
+                boolean bulk = i % 4 >= 2;
+                outcomes.add(pool.submit(() -> {
+                    go.await();
+                    return bulk ? bookInBulk(instance, request) : book(instance, request);
+                }));
+            }
+            go.countDown();
+            int booked = 0;
+            for (Future<Boolean> outcome : outcomes) {
+                if (outcome.get(60, TimeUnit.SECONDS)) {
+                    booked++;
+                }
+            }
+            assertThat(booked).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Long rows = jdbcTemplate.queryForObject(
+                "select count(*) from appointments where doctor_id = ?", Long.class, doctor.getId());
+        assertThat(rows).isEqualTo(1);
+    }
+
+    private static boolean book(HospitalService instance, AppointmentDTO request) {
+        try {
+            instance.createAppointment(request);
+            return true;
+        } catch (BookingConflictException e) {
+            return false;
+        }
+    }
+
+    private static boolean bookInBulk(HospitalService instance, AppointmentDTO request) {
+        BulkBookingResult result = instance.bookAppointments(List.of(request));
+        return result.getCreated() == 1;
+    }
+
+    private static AppointmentDTO appointment(Long patientId, Long doctorId, LocalDateTime start) {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctorId);
+        dto.setPatient(new PatientSummary(patientId, null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(start);
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Race");
+        return dto;
+    }
+}
@@ -0,0 +1,133 @@
+package com.hms.service;
+
+import com.hms.model.AppointmentDTO;
+import com.hms.model.BulkBookingResult;
+import com.hms.model.BulkBookingResult.Item;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// One result per submitted item, in submission order - a bad item is rejected on its own
+// and never takes the rest of the batch down with it
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkBookingTest {
+
+    private static final long UNKNOWN = 999_999_999L;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PatientDTO patient;
+    private DoctorDTO doctor;
+    private LocalDateTime morning;
+
+    @BeforeEach
+    void setUp() {
+        patient = hospitalService.createPatient(patient());
+        doctor = hospitalService.createDoctor(doctor());
+        morning = LocalDateTime.now().plusYears(4).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @Test
+    void invalidItemsAreRejectedByIndexAndTheRestBooked() {
+        AppointmentDTO noTime = appointment(patient.getId(), doctor.getId(), null);
+        AppointmentDTO badStatus = appointment(patient.getId(), doctor.getId(), morning.plusHours(2));
+        badStatus.setStatus("POSTPONED");
+
+        BulkBookingResult result = hospitalService.bookAppointments(List.of(
+                appointment(patient.getId(), doctor.getId(), morning),
+                noTime,
+                badStatus,
+                appointment(patient.getId(), doctor.getId(), morning.plusHours(1))));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(Item::index, Item::status, Item::message).containsExactly(
+                tuple(0, "CREATED", null),
+                tuple(1, "REJECTED", "Appointment date/time is required"),
+                tuple(2, "REJECTED", "Unknown appointment status: POSTPONED"),
+                tuple(3, "CREATED", null));
+        assertThat(result.getItems().get(0).id()).isNotNull();
+        assertThat(appointmentsOfDoctor()).isEqualTo(2);
+    }
+
+    @Test
+    void unknownPatientOrDoctorIsRejected() {
+        BulkBookingResult result = hospitalService.bookAppointments(List.of(
+                appointment(UNKNOWN, doctor.getId(), morning),
+                appointment(patient.getId(), UNKNOWN, morning),
+                appointment(null, doctor.getId(), morning),
+                appointment(patient.getId(), doctor.getId(), morning)));
+
+        assertThat(result.getItems()).extracting(Item::index, Item::status, Item::message).containsExactly(
+                tuple(0, "REJECTED", "Patient not found"),
+                tuple(1, "REJECTED", "Doctor not found"),
+                tuple(2, "REJECTED", "Patient not found"),
+                tuple(3, "CREATED", null));
+        assertThat(appointmentsOfDoctor()).isEqualTo(1);
+    }
+
+    @Test
+    void laterItemOverlappingAnEarlierOneInTheSameRequestIsRejected() {
+        AppointmentDTO cancelled = appointment(patient.getId(), doctor.getId(), morning.plusMinutes(10));
+        cancelled.setStatus("CANCELLED");
+
+        BulkBookingResult result = hospitalService.bookAppointments(List.of(
+                appointment(patient.getId(), doctor.getId(), morning),
+                appointment(patient.getId(), doctor.getId(), morning.plusMinutes(15)),
+                // A cancelled appointment holds no slot, so it neither clashes nor blocks
+                cancelled,
+                appointment(patient.getId(), doctor.getId(), morning.plusMinutes(30))));
+
+        assertThat(result.getItems()).extracting(Item::index, Item::status).containsExactly(
+                tuple(0, "CREATED"),
+                tuple(1, "REJECTED"),
+                tuple(2, "CREATED"),
+                tuple(3, "CREATED"));
+        assertThat(result.getItems().get(1).message()).startsWith("Doctor already has an appointment at");
+        assertThat(appointmentsOfDoctor()).isEqualTo(3);
+    }
+
+    @Test
+    void emptyRequestBooksNothing() {
+        BulkBookingResult result = hospitalService.bookAppointments(List.of());
+
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getItems()).isEmpty();
+    }
+
+    private long appointmentsOfDoctor() {
+        return jdbcTemplate.queryForObject("select count(*) from appointments where doctor_id = ?", Long.class, doctor.getId());
+    }
+
+    private static AppointmentDTO appointment(Long patientId, Long doctorId, LocalDateTime start) {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctorId);
+        dto.setPatient(new PatientSummary(patientId, null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(start);
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Bulk");
+        return dto;
+    }
+}
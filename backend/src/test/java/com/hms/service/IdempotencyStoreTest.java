@@ -0,0 +1,110 @@
+package com.hms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private static final Map<String, String> BODY = Map.of("name", "Jane");
+
+    private final IdempotencyStore store = new IdempotencyStore(new ObjectMapper(), 100, 60, 2000);
+
+    @Test
+    void retryReplaysTheFirstResponse() {
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotencyStore.Outcome<Integer> first = store.execute("POST /x", "", "k1", BODY, runs::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> retry = store.execute("POST /x", "", "k1", BODY, runs::incrementAndGet);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response()).isEqualTo(1);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyIsRejected() {
+        store.execute("POST /x", "", "k2", BODY, () -> 1);
+
+        assertThatThrownBy(() -> store.execute("POST /x", "", "k2", Map.of("name", "John"), () -> 2))
+                .isInstanceOf(IdempotencyKeyException.class);
+    }
+
+    @Test
+    void keysOfDifferentCallersDontMeet() {
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("POST /x", "alice", "k3", BODY, runs::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> bob = store.execute("POST /x", "bob", "k3", BODY, runs::incrementAndGet);
+
+        assertThat(bob.replayed()).isFalse();
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void errorReleasesWaitersAndTheKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> store.execute("POST /x", "", "k4", BODY, () -> {
+            started.countDown();
+            await(fail);
+            throw new StackOverflowError("boom");
+        }));
+        started.await();
+        CompletableFuture<Object> duplicate = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                duplicate.complete(store.execute("POST /x", "", "k4", BODY, () -> "never runs"));
+            } catch (Throwable e) {
+                duplicate.completeExceptionally(e);
+            }
+        });
+        waiter.start();
+        // Fail only once the duplicate is parked on the first request's result
+        while (waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        fail.countDown();
+
+        assertThatThrownBy(() -> duplicate.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        // Nothing was stored, so the next retry runs for real
+        assertThat(store.execute("POST /x", "", "k4", BODY, () -> "ok").replayed()).isFalse();
+    }
+
+    @Test
+    void duplicateGivesUpWhileTheFirstIsStillRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> store.execute("POST /x", "", "k5", BODY, () -> {
+            started.countDown();
+            await(finish);
+            return "done";
+        }));
+        started.await();
+
+        assertThatThrownBy(() -> store.execute("POST /x", "", "k5", BODY, () -> "never runs"))
+                .isInstanceOf(IdempotencyKeyInUseException.class);
+
+        finish.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(store.execute("POST /x", "", "k5", BODY, () -> "never runs").response()).isEqualTo("done");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.hms.service;
+
+import com.hms.config.QueryCounter;
+import com.hms.model.AppointmentDTO;
+import com.hms.model.AppointmentStatus;
+import com.hms.model.BillDTO;
+import com.hms.model.BillStatus;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import com.hms.repository.AppointmentRepository;
+import com.hms.repository.BillRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The list paths must not go back to the database per row: each one is counted with a
+// few rows, then again with many more rows spread over more patients and doctors
+@SpringBootTest
+@ActiveProfiles("test")
+class ListQueryCountTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private LocalDateTime nextStart = LocalDateTime.now().plusYears(5).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    @Test
+    void listPathsIssueTheSameNumberOfStatementsForAnyNumberOfRows() throws Exception {
+        seed(2);
+        Map<String, Integer> few = countListPaths();
+        seed(20);
+        Map<String, Integer> many = countListPaths();
+
+        assertThat(many).isEqualTo(few);
+        assertThat(few.values()).containsOnly(1);
+    }
+
+    private Map<String, Integer> countListPaths() throws IOException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("patients", statements(() -> hospitalService.getAllPatients()));
+        counts.put("patients page", statements(() -> hospitalService.getPatients(null, 100)));
+        counts.put("doctors", statements(() -> hospitalService.getAllDoctors()));
+        counts.put("appointments", statements(() -> hospitalService.getAllAppointments()));
+        counts.put("appointments page", statements(() -> hospitalService.getAppointments(null, 100)));
+        counts.put("appointments export", statements(() -> export(true)));
+        counts.put("bills", statements(() -> hospitalService.getAllBills()));
+        counts.put("bills page", statements(() -> hospitalService.getBills(null, 100)));
+        counts.put("bills export", statements(() -> export(false)));
+        // Entity finders with fetch-joined associations - walking them must not load anything more
+        counts.put("appointments by status", statements(() -> inTransaction(() ->
+                appointmentRepository.findByStatus(AppointmentStatus.SCHEDULED).forEach(appointment -> {
+                    appointment.getPatient().getName();
+                    appointment.getDoctor().getName();
+                }))));
+        counts.put("bills by status", statements(() -> inTransaction(() ->
+                billRepository.findByStatus(BillStatus.PENDING).forEach(bill -> bill.getPatient().getName()))));
+        return counts;
+    }
+
+    private static int statements(Runnable listPath) {
+        QueryCounter.reset();
+        listPath.run();
+        return QueryCounter.current();
+    }
+
+    private void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(tx -> work.run());
+    }
+
+    private void export(boolean appointments) {
+        try {
+            if (appointments) {
+                hospitalService.exportAppointments(new ByteArrayOutputStream());
+            } else {
+                hospitalService.exportBills(new ByteArrayOutputStream());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Every row gets its own patient and doctor, so a lazy association would cost one select per row
+    private void seed(int rows) {
+        for (int i = 0; i < rows; i++) {
+            DoctorDTO doctor = hospitalService.createDoctor(doctor());
+            PatientDTO patient = hospitalService.createPatient(patient());
+            hospitalService.createAppointment(appointment(patient.getId(), doctor.getId()));
+            hospitalService.createBill(bill(patient.getId()));
+        }
+    }
+
+    private AppointmentDTO appointment(Long patientId, Long doctorId) {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctorId);
+        dto.setPatient(new PatientSummary(patientId, null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(nextStart);
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Counting");
+        nextStart = nextStart.plusHours(1);
+        return dto;
+    }
+
+    private static BillDTO bill(Long patientId) {
+        BillDTO dto = new BillDTO();
+        dto.setPatient(new PatientSummary(patientId, null, null, null, null));
+        dto.setAmount(new BigDecimal("120.00"));
+        dto.setStatus("PENDING");
+        dto.setBillDate(LocalDateTime.now());
+        dto.setDueDate(LocalDateTime.now().plusDays(30));
+        dto.setDescription("Consultation");
+        return dto;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hms.service;
+
+import com.hms.model.LookupMatch;
+import com.hms.repository.DoctorRepository;
+import com.hms.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+// Typeahead over names, phones and license numbers - matches by prefix of the whole value
+// or of any later word, one hit per patient or doctor
+class LookupIndexTest {
+
+    private final LookupIndex index = new LookupIndex(mock(PatientRepository.class), mock(DoctorRepository.class));
+
+    @BeforeEach
+    void setUp() {
+        index.putPatient(1L, "John  Smith", "555-0101");
+        index.putPatient(2L, "Smita Rao", "555-0202");
+        index.putDoctor(3L, "Dr. Sarah Smithers", "LIC-4401", "Cardiology");
+    }
+
+    @Test
+    void prefixMatchesTheWholeNameOrAnyLaterWord() {
+        assertThat(ids(index.lookup("smi", null, 10))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(index.lookup("JOHN sm", null, 10))).containsExactly(1L);
+        assertThat(ids(index.lookup("sarah smithers", null, 10))).containsExactly(3L);
+        // Only from the start of a word
+        assertThat(index.lookup("mith", null, 10)).isEmpty();
+    }
+
+    @Test
+    void phonesMatchByDigitsAndDoctorsByLicense() {
+        assertThat(index.lookup("555-01", null, 10)).extracting(LookupMatch::id, LookupMatch::matchedOn).containsExactly(tuple(1L, "phone"));
+        assertThat(index.lookup("lic-44", null, 10)).extracting(LookupMatch::matchedOn).containsExactly("licenseNumber");
+    }
+
+    @Test
+    void typeAndLimitNarrowTheMatches() {
+        assertThat(ids(index.lookup("smi", LookupIndex.DOCTOR, 10))).containsExactly(3L);
+        assertThat(ids(index.lookup("smi", LookupIndex.PATIENT, 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.lookup("smi", null, 1))).containsExactly(2L);
+    }
+
+    @Test
+    void patientMatchingOnSeveralWordsIsReportedOnce() {
+        index.putPatient(4L, "Smith Smithson", "555-0404");
+
+        assertThat(ids(index.lookup("smith", LookupIndex.PATIENT, 10))).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void updateDropsTheOldKeys() {
+        index.removePatient(1L, "John  Smith", "555-0101");
+        index.putPatient(1L, "John Walker", "555-0999");
+
+        assertThat(ids(index.lookup("smi", LookupIndex.PATIENT, 10))).containsExactly(2L);
+        assertThat(ids(index.lookup("walk", null, 10))).containsExactly(1L);
+        assertThat(index.lookup("5550101", null, 10)).isEmpty();
+        assertThat(ids(index.lookup("555-09", null, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void deletedPatientsAndDoctorsAreNotMatched() {
+        index.removePatient(2L, "Smita Rao", "555-0202");
+        index.removeDoctor(3L, "Dr. Sarah Smithers", "LIC-4401");
+
+        assertThat(ids(index.lookup("smi", null, 10))).containsExactly(1L);
+        assertThat(index.lookup("rao", null, 10)).isEmpty();
+        assertThat(index.lookup("5550202", null, 10)).isEmpty();
+        assertThat(index.lookup("lic", null, 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<LookupMatch> matches) {
+        return matches.stream().map(LookupMatch::id).toList();
+    }
+}
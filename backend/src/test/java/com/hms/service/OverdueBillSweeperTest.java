@@ -0,0 +1,143 @@
+package com.hms.service;
+
+import com.hms.model.Bill;
+import com.hms.model.BillStatus;
+import com.hms.model.Patient;
+import com.hms.model.SweepReport;
+import com.hms.repository.BillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// A bills table in a list: lockDueBills hands out up to a chunk of PENDING bills due before
+// the cut-off it is given, and markOverdue flips the ones it is passed
+class OverdueBillSweeperTest {
+
+    private static final int CHUNK = 2;
+    private static final long PATIENT = 7L;
+
+    private final BillRepository billRepository = mock(BillRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BillingAggregates billingAggregates = mock(BillingAggregates.class);
+    private final List<Bill> bills = new ArrayList<>();
+    private final List<LocalDateTime> cutOffs = new ArrayList<>();
+    private OverdueBillSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        when(billRepository.lockDueBills(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            cutOffs.add(now);
+            return bills.stream()
+                    .filter(bill -> bill.getStatus() == BillStatus.PENDING && bill.getDueDate().isBefore(now))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        when(billRepository.markOverdue(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            bills.stream().filter(bill -> ids.contains(bill.getId())).forEach(bill -> bill.setStatus(BillStatus.OVERDUE));
+            return ids.size();
+        });
+        sweeper = new OverdueBillSweeper(billRepository, new TransactionTemplate(transactionManager), billingAggregates, CHUNK);
+    }
+
+    @Test
+    void shortChunkEndsTheSweep() {
+        for (int i = 0; i < 5; i++) {
+            bill(LocalDateTime.now().minusDays(1 + i));
+        }
+
+        SweepReport report = sweeper.sweep();
+
+        assertThat(report.updated()).isEqualTo(5);
+        assertThat(report.chunks()).isEqualTo(3);
+        verify(billRepository, times(3)).lockDueBills(any(), any());
+        assertThat(bills).allMatch(bill -> bill.getStatus() == BillStatus.OVERDUE);
+    }
+
+    @Test
+    void fullLastChunkTakesOneMoreLookToSeeNothingIsLeft() {
+        for (int i = 0; i < 4; i++) {
+            bill(LocalDateTime.now().minusDays(1 + i));
+        }
+
+        SweepReport report = sweeper.sweep();
+
+        assertThat(report.updated()).isEqualTo(4);
+        assertThat(report.chunks()).isEqualTo(2);
+        verify(billRepository, times(3)).lockDueBills(any(), any());
+    }
+
+    @Test
+    void billDueLaterTodayIsLeftPending() {
+        Bill overdue = bill(LocalDateTime.now().minusMinutes(1));
+        Bill dueLater = bill(LocalDateTime.now().plusMinutes(1));
+
+        LocalDateTime before = LocalDateTime.now();
+        SweepReport report = sweeper.sweep();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(overdue.getStatus()).isEqualTo(BillStatus.OVERDUE);
+        assertThat(dueLater.getStatus()).isEqualTo(BillStatus.PENDING);
+        // Every chunk uses the time the sweep started, not the end of the day
+        assertThat(cutOffs).allMatch(now -> !now.isBefore(before) && !now.isAfter(after));
+        assertThat(cutOffs).containsOnly(report.startedAt());
+    }
+
+    @Test
+    void aggregatesHearOfEachChunkOnlyAfterItCommits() {
+        Bill first = bill(LocalDateTime.now().minusDays(3));
+        Bill second = bill(LocalDateTime.now().minusDays(2));
+        Bill third = bill(LocalDateTime.now().minusDays(1));
+        // The first chunk commits, the second one fails to
+        doNothing().doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        assertThatThrownBy(sweeper::sweep).isInstanceOf(TransactionSystemException.class);
+
+        InOrder order = inOrder(transactionManager, billingAggregates);
+        order.verify(transactionManager).commit(any());
+        order.verify(billingAggregates).statusChanged(PATIENT, BillStatus.PENDING, BillStatus.OVERDUE, first.getAmount());
+        order.verify(billingAggregates).statusChanged(PATIENT, BillStatus.PENDING, BillStatus.OVERDUE, second.getAmount());
+        verify(billingAggregates, never()).statusChanged(eq(PATIENT), any(), any(), eq(third.getAmount()));
+    }
+
+    private Bill bill(LocalDateTime dueDate) {
+        long id = bills.size() + 1;
+        Bill bill = Bill.builder()
+                .id(id)
+                .patient(Patient.builder().id(PATIENT).build())
+                .amount(BigDecimal.valueOf(100 + id, 2))
+                .status(BillStatus.PENDING)
+                .billDate(dueDate.minusDays(30))
+                .dueDate(dueDate)
+                .build();
+        bills.add(bill);
+        return bill;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hms.service;
+
+import com.hms.model.BulkImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PatientImportServiceTest {
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void emptyArrayImportsNothing() throws IOException {
+        BulkImportResult result = importJson("[]");
+
+        assertThat(result.getReceived()).isZero();
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getErrors()).isEmpty();
+    }
+
+    @Test
+    void malformedElementsAreReportedAndTheRestImported() throws IOException {
+        String badDate = email();
+        BulkImportResult result = importJson("[" + patient(email()) + ", 42, "
+                + "{\"name\":\"Bad Date\",\"email\":\"" + badDate + "\",\"phone\":\"555-0101\",\"dateOfBirth\":\"yesterday\"}, "
+                + "[\"not\", \"a\", \"patient\"], " + patient(email()) + "]");
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkImportResult.RowError::row).containsExactly(2, 3, 4);
+        assertThat(result.getErrors().get(1).key()).isEqualTo(badDate);
+        assertThat(result.getErrors()).allSatisfy(error -> assertThat(error.message()).startsWith("Unreadable row"));
+    }
+
+    @Test
+    void brokenSyntaxKeepsTheRowsBeforeIt() throws IOException {
+        BulkImportResult result = importJson("[" + patient(email()) + ", " + patient(email()) + ", {\"name\": \"Cut");
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.row()).isEqualTo(3);
+            assertThat(error.message()).startsWith("Malformed JSON");
+        });
+    }
+
+    @Test
+    void unclosedArrayIsReported() throws IOException {
+        BulkImportResult result = importJson("[" + patient(email()));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.message()).startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void bodyThatIsNotAnArrayIsABadRequest() throws Exception {
+        for (String body : new String[] {patient(email()), "42", "", "not json"}) {
+            mockMvc.perform(post("/api/patients/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private BulkImportResult importJson(String json) throws IOException {
+        return patientImportService.importJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String patient(String email) {
+        return "{\"name\":\"Imported Patient\",\"email\":\"" + email + "\",\"phone\":\"555-0100\",\"dateOfBirth\":\"1990-04-01\"}";
+    }
+
+    private static String email() {
+        return System.nanoTime() + "@import.test";
+    }
+}
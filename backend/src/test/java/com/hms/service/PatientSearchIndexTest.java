@@ -0,0 +1,81 @@
+package com.hms.service;
+
+import com.hms.model.PatientText;
+import com.hms.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Whole-term, case-insensitive search where every query term must match, ranked by the
+// field the terms were found in
+class PatientSearchIndexTest {
+
+    private final PatientSearchIndex index = new PatientSearchIndex(mock(PatientRepository.class));
+
+    @Test
+    void termsAreLowerCasedRunsOfLettersAndDigits() {
+        index.add(new PatientText(1L, "Mary-Jane O'Connor", "mj.oconnor@mail.test", "555-0101", null));
+
+        assertThat(index.search("MARY jane", 10)).containsExactly(1L);
+        assertThat(index.search("connor", 10)).containsExactly(1L);
+        assertThat(index.search("oconnor", 10)).containsExactly(1L);
+        // Phone numbers match by their parts and as plain digits
+        assertThat(index.search("0101", 10)).containsExactly(1L);
+        assertThat(index.search("5550101", 10)).containsExactly(1L);
+        // Whole terms only, and nothing for a query without any
+        assertThat(index.search("mar", 10)).isEmpty();
+        assertThat(index.search(" - ", 10)).isEmpty();
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        index.add(new PatientText(1L, "Ann Smith", "ann@mail.test", "555-0101", "Asthma"));
+        index.add(new PatientText(2L, "Bob Smith", "bob@mail.test", "555-0102", "Diabetes"));
+
+        assertThat(index.search("smith asthma", 10)).containsExactly(1L);
+        assertThat(index.search("smith gout", 10)).isEmpty();
+    }
+
+    @Test
+    void nameMatchesRankAboveContactDetailsAboveHistory() {
+        index.add(new PatientText(1L, "Carl Jones", "carl@mail.test", "555-0101", "Referred by Dr. Smith"));
+        index.add(new PatientText(2L, "Dana Jones", "smith@mail.test", "555-0102", null));
+        index.add(new PatientText(3L, "Eve Smith", "eve@mail.test", "555-0103", null));
+        index.add(new PatientText(4L, "Fay Smith", "fay@mail.test", "555-0104", null));
+
+        // Equal scores keep the older patient first
+        assertThat(index.search("smith", 10)).containsExactly(3L, 4L, 2L, 1L);
+        assertThat(index.search("smith", 2)).containsExactly(3L, 4L);
+        // Scores add up across terms
+        assertThat(index.search("jones smith", 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void updateDropsTheOldTermsAndKeepsOtherPatients() {
+        PatientText before = new PatientText(1L, "Gail Brown", "gail@mail.test", "555-0101", "Asthma");
+        index.add(before);
+        index.add(new PatientText(2L, "Hank Brown", "hank@mail.test", "555-0102", null));
+
+        index.replace(before, new PatientText(1L, "Gail Green", "gail@mail.test", "555-0101", null));
+
+        assertThat(index.search("green", 10)).containsExactly(1L);
+        assertThat(index.search("gail", 10)).containsExactly(1L);
+        assertThat(index.search("asthma", 10)).isEmpty();
+        assertThat(index.search("brown", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void deletedPatientIsNotFoundByAnyTerm() {
+        PatientText patient = new PatientText(1L, "Ivy White", "ivy@mail.test", "555-0101", "Migraine");
+        index.add(patient);
+        index.add(new PatientText(2L, "Jack White", "jack@mail.test", "555-0102", null));
+
+        index.remove(patient);
+
+        for (String query : new String[] {"ivy", "white", "migraine", "5550101"}) {
+            assertThat(index.search(query, 10)).as(query).doesNotContain(1L);
+        }
+        assertThat(index.search("white", 10)).containsExactly(2L);
+    }
+}
@@ -0,0 +1,159 @@
+package com.hms.service;
+
+import com.hms.config.CacheConfig;
+import com.hms.config.QueryCounter;
+import com.hms.model.AppointmentDTO;
+import com.hms.model.BillDTO;
+import com.hms.model.DoctorDTO;
+import com.hms.model.PatientDTO;
+import com.hms.model.PatientSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.hms.TestData.doctor;
+import static com.hms.TestData.patient;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadThroughCacheTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private PatientDTO patient;
+    private DoctorDTO doctor;
+
+    @BeforeEach
+    void setUp() {
+        patient = hospitalService.createPatient(patient());
+        doctor = hospitalService.createDoctor(doctor());
+    }
+
+    @Test
+    void appointmentAndBillAreBuiltFromTheirFetchJoinedRows() {
+        AppointmentDTO appointment = hospitalService.createAppointment(appointment());
+        BillDTO bill = hospitalService.createBill(bill());
+        clearCaches();
+
+        // Cold caches must not cost a patient or doctor select on top of the fetch join
+        QueryCounter.reset();
+        AppointmentDTO loaded = hospitalService.getAppointmentById(appointment.getId());
+        assertThat(QueryCounter.current()).isEqualTo(1);
+        assertThat(loaded.getPatient().name()).isEqualTo(patient.getName());
+        assertThat(loaded.getDoctor().getName()).isEqualTo(doctor.getName());
+
+        QueryCounter.reset();
+        BillDTO loadedBill = hospitalService.getBillById(bill.getId());
+        assertThat(QueryCounter.current()).isEqualTo(1);
+        assertThat(loadedBill.getPatient().name()).isEqualTo(patient.getName());
+    }
+
+    @Test
+    void updateIsSeenByTheNextRead() {
+        hospitalService.getPatientById(patient.getId());
+        hospitalService.getDoctorById(doctor.getId());
+
+        patient.setName("Renamed Patient");
+        hospitalService.updatePatient(patient.getId(), patient);
+        doctor.setName("Dr. Renamed");
+        hospitalService.updateDoctor(doctor.getId(), doctor);
+
+        assertThat(hospitalService.getPatientById(patient.getId()).getName()).isEqualTo("Renamed Patient");
+        assertThat(hospitalService.getDoctorById(doctor.getId()).getName()).isEqualTo("Dr. Renamed");
+    }
+
+    @Test
+    void missingRowKeepsItsNotFoundError() {
+        assertThatThrownBy(() -> hospitalService.getPatientById(Long.MAX_VALUE)).hasMessage("Patient not found");
+        assertThatThrownBy(() -> hospitalService.getDoctorById(Long.MAX_VALUE)).hasMessage("Doctor not found");
+    }
+
+    @Test
+    void loadOverlappingAWriteIsNotKept() {
+        ReadThroughCache cache = new ReadThroughCache(new ConcurrentMapCache("test"));
+
+        // The write commits and evicts while the reader is still holding the old row
+        String loaded = cache.get(1L, () -> {
+            cache.evict(1L);
+            return "old";
+        });
+
+        assertThat(loaded).isEqualTo("old");
+        assertThat(cache.get(1L, () -> "new")).isEqualTo("new");
+        assertThat(cache.get(1L, () -> "reloaded")).isEqualTo("new");
+    }
+
+    @Test
+    void loadRunsOutsideTheCacheLock() throws Exception {
+        ReadThroughCache cache = new ReadThroughCache(cacheManager.getCache(CacheConfig.DOCTORS));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slow = new Thread(() -> cache.get("slow", () -> {
+            loading.countDown();
+            await(release);
+            return "slow";
+        }));
+        slow.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A writer on the same key doesn't wait for the load in progress
+        CompletableFuture<Void> evict = CompletableFuture.runAsync(() -> cache.evict("slow"));
+        assertThat(evict).succeedsWithin(Duration.ofSeconds(5));
+
+        release.countDown();
+        slow.join();
+        // ...and the load that overlapped it was not kept
+        assertThat(cache.get("slow", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void clearCaches() {
+        cacheManager.getCache(CacheConfig.PATIENTS).clear();
+        cacheManager.getCache(CacheConfig.DOCTORS).clear();
+    }
+
+    private AppointmentDTO appointment() {
+        AppointmentDTO dto = new AppointmentDTO();
+        DoctorDTO doctorRef = new DoctorDTO();
+        doctorRef.setId(doctor.getId());
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setDoctor(doctorRef);
+        dto.setAppointmentDateTime(LocalDateTime.now().plusYears(7).withHour(10).withMinute(0).withSecond(0).withNano(0));
+        dto.setStatus("SCHEDULED");
+        dto.setReasonForVisit("Caching");
+        return dto;
+    }
+
+    private BillDTO bill() {
+        BillDTO dto = new BillDTO();
+        dto.setPatient(new PatientSummary(patient.getId(), null, null, null, null));
+        dto.setAmount(new BigDecimal("45.00"));
+        dto.setStatus("PENDING");
+        dto.setDescription("Caching");
+        return dto;
+    }
+}
@@ -25,6 +25,13 @@ echo.
 echo ✨ NO DATABASE SETUP REQUIRED - Using embedded H2 database
 echo.
 
+if "%HMS_JWT_SECRET%"=="" (
+    echo Error: HMS_JWT_SECRET is not set
+    echo Set it to a base64 key of at least 32 bytes, e.g. the output of: openssl rand -base64 32
+    pause
+    exit /b 1
+)
+
 echo Compiling the project...
 mvn clean compile
 if %ERRORLEVEL% neq 0 (
@@ -40,12 +47,12 @@ echo 📍 Application will be available at: http://localhost:8080
 echo 📚 Swagger UI: http://localhost:8080/swagger-ui.html
 echo 🗄️  H2 Console: http://localhost:8080/h2-console
 echo.
-echo 🔑 Default Login Credentials:
-echo    Username: admin    Password: admin123
-echo    Username: doctor1  Password: doctor123
-echo    Username: clerk1   Password: clerk123
+echo 🔑 Demo Login Credentials (dev profile):
+echo    Username: admin      Password: admin123
+echo    Username: doctor     Password: doctor123
+echo    Username: frontdesk  Password: frontdesk123
 echo.
 echo Press Ctrl+C to stop the application
 echo.
 
-mvn spring-boot:run
+mvn spring-boot:run "-Dspring-boot.run.profiles=dev"